@@ -1,13 +1,51 @@
 package org.apartment.client;
 
-import org.springframework.cloud.openfeign.FeignClient;
+import java.time.Duration;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpHeaders;
-import org.springframework.web.bind.annotation.PostMapping;
-import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
 
-@FeignClient(name = "auth")
-public interface AuthClient {
+@Component
+public class AuthClient {
+  private static final String VALIDATE_TOKEN_PATH = "/api/v1/auth/validate-token";
 
-  @PostMapping("/api/v1/auth/validate-token")
-  String validateToken(@RequestHeader(HttpHeaders.AUTHORIZATION) String authHeader);
+  private final WebClient webClient;
+  private final Duration hedgeDelay;
+  private final int maxRetries;
+  private final Duration retryBackoff;
+
+  @Autowired
+  public AuthClient(@Qualifier("authWebClient") WebClient webClient,
+                    @Value("${auth-client.hedge-delay}") Duration hedgeDelay,
+                    @Value("${auth-client.max-retries}") int maxRetries,
+                    @Value("${auth-client.retry-backoff}") Duration retryBackoff) {
+    this.webClient = webClient;
+    this.hedgeDelay = hedgeDelay;
+    this.maxRetries = maxRetries;
+    this.retryBackoff = retryBackoff;
+  }
+
+  /**
+   * Resolves the id of the user the token was issued to. If auth has not answered within the hedge
+   * delay a second request is sent, and the first of them to answer decides the result.
+   */
+  public Mono<String> validateToken(String authHeader) {
+    Mono<String> request = webClient.post().uri(VALIDATE_TOKEN_PATH)
+        .header(HttpHeaders.AUTHORIZATION, authHeader).retrieve().bodyToMono(String.class);
+
+    return Mono.firstWithSignal(request, Mono.delay(hedgeDelay).then(request))
+        .retryWhen(Retry.backoff(maxRetries, retryBackoff).filter(AuthClient::isRetryable));
+  }
+
+  // A rejected token stays rejected, everything else may succeed on another instance
+  private static boolean isRetryable(Throwable e) {
+    return !(e instanceof WebClientResponseException response)
+        || response.getStatusCode().is5xxServerError();
+  }
 }
@@ -30,6 +30,11 @@ public class ApiGatewayConfig {
         .route("property-post", r -> r.path("/api/v1/property").and().method(HttpMethod.POST)
             .filters(f -> f.filter(gatewayFilter)).uri("lb://real-estate"))
 
+        // POST /api/v1/property/import
+        .route("property-import",
+            r -> r.path("/api/v1/property/import").and().method(HttpMethod.POST)
+                .filters(f -> f.filter(gatewayFilter)).uri("lb://real-estate"))
+
         // GET /api/v1/property
         .route("property-get",
             r -> r.path("/api/v1/property").and().method(HttpMethod.GET).uri("lb://real-estate"))
@@ -0,0 +1,44 @@
+package org.apartment.config;
+
+import io.netty.channel.ChannelOption;
+import java.time.Duration;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.client.loadbalancer.reactive.ReactorLoadBalancerExchangeFilterFunction;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+@Configuration
+public class AuthClientConfig {
+  @Value("${auth-client.connect-timeout}")
+  private Duration connectTimeout;
+
+  @Value("${auth-client.response-timeout}")
+  private Duration responseTimeout;
+
+  @Value("${auth-client.max-connections}")
+  private int maxConnections;
+
+  @Value("${auth-client.pending-acquire-timeout}")
+  private Duration pendingAcquireTimeout;
+
+  @Value("${auth-client.max-idle-time}")
+  private Duration maxIdleTime;
+
+  // "auth" is resolved through discovery by the load balancer filter, like lb://auth in routes
+  @Bean
+  public WebClient authWebClient(ReactorLoadBalancerExchangeFilterFunction loadBalancerFunction) {
+    ConnectionProvider connectionProvider =
+        ConnectionProvider.builder("auth").maxConnections(maxConnections)
+            .pendingAcquireTimeout(pendingAcquireTimeout).maxIdleTime(maxIdleTime).build();
+    HttpClient httpClient = HttpClient.create(connectionProvider)
+        .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) connectTimeout.toMillis())
+        .responseTimeout(responseTimeout);
+
+    return WebClient.builder().baseUrl("http://auth").filter(loadBalancerFunction)
+        .clientConnector(new ReactorClientHttpConnector(httpClient)).build();
+  }
+}
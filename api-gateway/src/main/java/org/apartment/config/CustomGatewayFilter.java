@@ -1,11 +1,13 @@
 package org.apartment.config;
 
 import lombok.extern.slf4j.Slf4j;
-import org.apartment.client.AuthClient;
+import org.apartment.exception.RevocationsNotReplayedException;
+import org.apartment.service.JwtVerificationService;
+import org.apartment.service.TokenValidationCache;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cloud.gateway.filter.GatewayFilter;
 import org.springframework.cloud.gateway.filter.GatewayFilterChain;
-import org.springframework.context.annotation.Lazy;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
@@ -19,12 +21,18 @@ import reactor.core.publisher.Mono;
 @Slf4j
 public class CustomGatewayFilter implements GatewayFilter {
 
-  private final AuthClient authClient;
+  private final TokenValidationCache tokenValidationCache;
+  private final JwtVerificationService jwtVerificationService;
+  private final boolean localVerification;
 
   @Autowired
-  @Lazy
-  public CustomGatewayFilter(AuthClient authClient) {
-    this.authClient = authClient;
+  public CustomGatewayFilter(TokenValidationCache tokenValidationCache,
+                             JwtVerificationService jwtVerificationService,
+                             @Value("${application.security.jwt.local-verification}")
+                             boolean localVerification) {
+    this.tokenValidationCache = tokenValidationCache;
+    this.jwtVerificationService = jwtVerificationService;
+    this.localVerification = localVerification;
   }
 
   @Override
@@ -45,7 +53,7 @@ public class CustomGatewayFilter implements GatewayFilter {
 
     log.info("Authorization header found, validating token");
 
-    return Mono.fromCallable(() -> authClient.validateToken(authHeader)).flatMap(userInfo -> {
+    return validateToken(authHeader).flatMap(userInfo -> {
       log.info("Token validated successfully for user: {}", userInfo);
 
       ServerHttpRequest mutatedRequest =
@@ -53,7 +61,11 @@ public class CustomGatewayFilter implements GatewayFilter {
 
       log.info("Passing mutated request to the next filter");
       return chain.filter(exchange.mutate().request(mutatedRequest).build());
-    }).onErrorResume(ex -> Mono.defer(() -> {
+    }).onErrorResume(RevocationsNotReplayedException.class, ex -> Mono.defer(() -> {
+      log.warn("Rejecting request, token revocations are still being replayed");
+      exchange.getResponse().setStatusCode(HttpStatus.SERVICE_UNAVAILABLE);
+      return exchange.getResponse().setComplete();
+    })).onErrorResume(ex -> Mono.defer(() -> {
       log.error("Error occurred during token validation", ex);
 
       exchange.getResponse().setStatusCode(HttpStatus.UNAUTHORIZED);
@@ -65,4 +77,12 @@ public class CustomGatewayFilter implements GatewayFilter {
           Mono.just(exchange.getResponse().bufferFactory().wrap(jsonResponse.getBytes())));
     }));
   }
+
+  private Mono<String> validateToken(String authHeader) {
+    if (localVerification) {
+      // Signature and expiry checks take microseconds, so they run on the event loop
+      return Mono.fromCallable(() -> jwtVerificationService.verify(authHeader.substring(7)));
+    }
+    return tokenValidationCache.validateToken(authHeader);
+  }
 }
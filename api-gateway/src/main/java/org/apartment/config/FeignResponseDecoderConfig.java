@@ -1,18 +0,0 @@
-package org.apartment.config;
-
-import feign.codec.Decoder;
-import org.springframework.beans.factory.ObjectFactory;
-import org.springframework.boot.autoconfigure.http.HttpMessageConverters;
-import org.springframework.cloud.openfeign.support.SpringDecoder;
-import org.springframework.context.annotation.Bean;
-import org.springframework.context.annotation.Configuration;
-
-@Configuration
-public class FeignResponseDecoderConfig {
-
-  @Bean
-  public Decoder feignDecoder() {
-    ObjectFactory<HttpMessageConverters> messageConverters = HttpMessageConverters::new;
-    return new SpringDecoder(messageConverters);
-  }
-}
\ No newline at end of file
@@ -0,0 +1,52 @@
+package org.apartment.config;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apartment.service.TokenRevocationService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.kafka.annotation.EnableKafka;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.listener.ContainerProperties;
+
+@EnableKafka
+@Configuration
+public class KafkaConsumerConfig {
+  @Value("${kafka-bootstrap-servers}")
+  private String bootstrapServers;
+
+  // A fresh group per instance replays every revocation still retained by the topic. Its offsets
+  // are never committed, so the group goes away with the instance.
+  @Bean
+  public ConsumerFactory<String, String> revocationConsumerFactory() {
+    Map<String, Object> configProps = new HashMap<>();
+    configProps.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+    configProps.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+    configProps.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+    configProps.put(ConsumerConfig.GROUP_ID_CONFIG,
+        "api_gateway_token_revocation_" + UUID.randomUUID());
+    configProps.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, "false");
+    configProps.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+
+    return new DefaultKafkaConsumerFactory<>(configProps);
+  }
+
+  @Bean
+  public ConcurrentKafkaListenerContainerFactory<String, String>
+      revocationKafkaListenerContainerFactory(@Lazy TokenRevocationService tokenRevocationService) {
+    ConcurrentKafkaListenerContainerFactory<String, String> factory =
+        new ConcurrentKafkaListenerContainerFactory<>();
+    factory.setConsumerFactory(revocationConsumerFactory());
+    factory.getContainerProperties().setConsumerRebalanceListener(tokenRevocationService);
+    // The listener never acknowledges, so the container commits no offsets either
+    factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL);
+    return factory;
+  }
+}
@@ -0,0 +1,7 @@
+package org.apartment.exception;
+
+public class RevocationsNotReplayedException extends RuntimeException {
+  public RevocationsNotReplayedException(String message) {
+    super(message);
+  }
+}
@@ -0,0 +1,59 @@
+package org.apartment.service;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import org.apartment.exception.RevocationsNotReplayedException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Verifies access tokens issued by auth with the shared signing key, without calling auth.
+ */
+@Service
+public class JwtVerificationService {
+  private static final String USER_ID_CLAIM = "user_id";
+  private static final String TOKEN_ID_CLAIM = "unique_id";
+  private static final String TOKEN_TYPE_CLAIM = "token_type";
+  private static final String ACCESS_TOKEN_TYPE = "access";
+
+  private final JwtParser jwtParser;
+  private final TokenRevocationService tokenRevocationService;
+
+  @Autowired
+  public JwtVerificationService(@Value("${application.security.jwt.secret-key}") String secretKey,
+                                TokenRevocationService tokenRevocationService) {
+    this.jwtParser =
+        Jwts.parser().verifyWith(Keys.hmacShaKeyFor(Decoders.BASE64.decode(secretKey))).build();
+    this.tokenRevocationService = tokenRevocationService;
+  }
+
+  /**
+   * @return the id of the user the token was issued to
+   * @throws JwtException if the token is malformed, expired, wrongly signed, not an access token
+   *     or revoked
+   * @throws RevocationsNotReplayedException if the revocations are still being replayed
+   */
+  public String verify(String token) {
+    if (!tokenRevocationService.isCaughtUp()) {
+      throw new RevocationsNotReplayedException("Token revocations are still being replayed");
+    }
+    Claims claims = jwtParser.parseSignedClaims(token).getPayload();
+    String userId = claims.get(USER_ID_CLAIM, String.class);
+    if (userId == null) {
+      throw new JwtException("Token has no user id");
+    }
+    // Refresh tokens are never revoked, so they must not pass as access tokens
+    if (!ACCESS_TOKEN_TYPE.equals(claims.get(TOKEN_TYPE_CLAIM, String.class))) {
+      throw new JwtException("Not an access token");
+    }
+    if (tokenRevocationService.isRevoked(claims.get(TOKEN_ID_CLAIM, String.class))) {
+      throw new JwtException("Token has been revoked");
+    }
+    return userId;
+  }
+}
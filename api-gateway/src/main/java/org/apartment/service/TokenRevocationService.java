@@ -0,0 +1,110 @@
+package org.apartment.service;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.listener.ConsumerAwareRebalanceListener;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.messaging.handler.annotation.Header;
+import org.springframework.messaging.handler.annotation.Payload;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Mirrors the revocations published by auth, keyed by the unique_id claim of the token. The topic
+ * is replayed from the beginning on startup, so the set is complete as long as the topic retention
+ * outlives the access tokens. The instance refuses traffic until it has read up to the end offsets
+ * it was assigned.
+ */
+@Service
+@Slf4j
+public class TokenRevocationService implements ConsumerAwareRebalanceListener {
+  public static final String REVOCATION_TOPIC = "token_revoked";
+
+  private final ApplicationEventPublisher eventPublisher;
+  private final Map<String, Instant> revokedTokens = new ConcurrentHashMap<>();
+  private final Map<TopicPartition, Long> catchUpOffsets = new ConcurrentHashMap<>();
+  private volatile boolean caughtUp;
+  private boolean applicationReady;
+
+  @Autowired
+  public TokenRevocationService(ApplicationEventPublisher eventPublisher) {
+    this.eventPublisher = eventPublisher;
+  }
+
+  public boolean isRevoked(String tokenId) {
+    return tokenId == null || revokedTokens.containsKey(tokenId);
+  }
+
+  public boolean isCaughtUp() {
+    return caughtUp;
+  }
+
+  @KafkaListener(topics = REVOCATION_TOPIC,
+      containerFactory = "revocationKafkaListenerContainerFactory")
+  public void onTokenRevoked(@Header(KafkaHeaders.RECEIVED_KEY) String tokenId,
+                             @Payload String expiresAt,
+                             @Header(KafkaHeaders.RECEIVED_PARTITION) int partition,
+                             @Header(KafkaHeaders.OFFSET) long offset) {
+    Instant expiry = Instant.parse(expiresAt);
+    if (expiry.isAfter(Instant.now())) {
+      revokedTokens.put(tokenId, expiry);
+    }
+    if (!caughtUp) {
+      catchUpOffsets.computeIfPresent(new TopicPartition(REVOCATION_TOPIC, partition),
+          (topicPartition, endOffset) -> offset + 1 >= endOffset ? null : endOffset);
+      checkCaughtUp();
+    }
+  }
+
+  @Override
+  public void onPartitionsAssigned(Consumer<?, ?> consumer, Collection<TopicPartition> partitions) {
+    if (caughtUp) {
+      return;
+    }
+    consumer.endOffsets(partitions).forEach((partition, endOffset) -> {
+      if (consumer.position(partition) < endOffset) {
+        catchUpOffsets.put(partition, endOffset);
+      }
+    });
+    checkCaughtUp();
+  }
+
+  // Spring Boot accepts traffic once the application is ready, which may be before the replay ends
+  @EventListener(ApplicationReadyEvent.class)
+  public synchronized void onApplicationReady() {
+    applicationReady = true;
+    if (!caughtUp) {
+      AvailabilityChangeEvent.publish(eventPublisher, this, ReadinessState.REFUSING_TRAFFIC);
+    }
+  }
+
+  private synchronized void checkCaughtUp() {
+    if (caughtUp || !catchUpOffsets.isEmpty()) {
+      return;
+    }
+    caughtUp = true;
+    log.info("Replayed token revocations, {} revoked tokens", revokedTokens.size());
+    if (applicationReady) {
+      AvailabilityChangeEvent.publish(eventPublisher, this, ReadinessState.ACCEPTING_TRAFFIC);
+    }
+  }
+
+  @Scheduled(fixedDelayString = "${token-revocation.eviction-interval}")
+  public void evictExpired() {
+    Instant now = Instant.now();
+    revokedTokens.values().removeIf(expiresAt -> !expiresAt.isAfter(now));
+    log.debug("{} revoked tokens not expired yet", revokedTokens.size());
+  }
+}
@@ -0,0 +1,104 @@
+package org.apartment.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.concurrent.CompletableFuture;
+import org.apartment.client.AuthClient;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+/**
+ * Caches the user ids auth resolved for tokens, keyed by the SHA-256 of the token so that the
+ * tokens themselves are not kept in memory. Concurrent misses for the same token share a single
+ * validation request, and failed validations are not cached.
+ */
+@Service
+public class TokenValidationCache {
+  private final AuthClient authClient;
+  private final ObjectMapper objectMapper;
+  private final AsyncCache<String, ValidatedToken> cache;
+
+  @Autowired
+  public TokenValidationCache(AuthClient authClient, ObjectMapper objectMapper,
+                              @Value("${token-cache.ttl}") Duration ttl,
+                              @Value("${token-cache.maximum-size}") long maximumSize,
+                              MeterRegistry registry) {
+    this.authClient = authClient;
+    this.objectMapper = objectMapper;
+    this.cache = Caffeine.newBuilder().maximumSize(maximumSize).expireAfter(new TokenExpiry(ttl))
+        .recordStats().buildAsync();
+
+    CaffeineCacheMetrics.monitor(registry, cache, "token_validation");
+    Gauge.builder("cache.hit.ratio", cache, value -> value.synchronous().stats().hitRate())
+        .tag("cache", "token_validation")
+        .description("Share of token validations answered from the cache").register(registry);
+  }
+
+  public Mono<String> validateToken(String authHeader) {
+    CompletableFuture<ValidatedToken> validation = cache.get(hash(authHeader),
+        (key, executor) -> authClient.validateToken(authHeader)
+            .map(userId -> new ValidatedToken(userId, expiresAt(authHeader))).toFuture());
+    // Other requests may be waiting on the same validation, so cancelling one must not cancel it
+    return Mono.fromFuture(validation, true).map(ValidatedToken::userId);
+  }
+
+  private static String hash(String authHeader) {
+    try {
+      MessageDigest digest = MessageDigest.getInstance("SHA-256");
+      return HexFormat.of().formatHex(digest.digest(authHeader.getBytes(StandardCharsets.UTF_8)));
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  // Auth has already verified the signature, the claims are only read to bound the cache entry
+  private Instant expiresAt(String authHeader) {
+    String[] parts = authHeader.substring(7).split("\\.");
+    try {
+      JsonNode exp = objectMapper.readTree(Base64.getUrlDecoder().decode(parts[1])).get("exp");
+      return exp != null && exp.canConvertToLong() ? Instant.ofEpochSecond(exp.asLong())
+          : Instant.EPOCH;
+    } catch (IOException | IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+      return Instant.EPOCH;
+    }
+  }
+
+  private record ValidatedToken(String userId, Instant expiresAt) {
+  }
+
+  private record TokenExpiry(Duration ttl) implements Expiry<String, ValidatedToken> {
+    @Override
+    public long expireAfterCreate(String key, ValidatedToken value, long currentTime) {
+      Duration untilExpiry = Duration.between(Instant.now(), value.expiresAt());
+      return untilExpiry.compareTo(ttl) < 0 ? Math.max(0, untilExpiry.toNanos()) : ttl.toNanos();
+    }
+
+    @Override
+    public long expireAfterUpdate(String key, ValidatedToken value, long currentTime,
+                                  long currentDuration) {
+      return expireAfterCreate(key, value, currentTime);
+    }
+
+    @Override
+    public long expireAfterRead(String key, ValidatedToken value, long currentTime,
+                                long currentDuration) {
+      return currentDuration;
+    }
+  }
+}
@@ -0,0 +1,255 @@
+package org.apartment.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.common.TopicPartition;
+import org.apartment.client.AuthClient;
+import org.apartment.service.JwtVerificationService;
+import org.apartment.service.TokenRevocationService;
+import org.apartment.service.TokenValidationCache;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.blockhound.BlockHound;
+import reactor.blockhound.BlockingOperationError;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+
+class CustomGatewayFilterTest {
+  private static final String SECRET_KEY =
+      "7A5B713377684E693055426D673968734E2B573154424C646742734B6F755274";
+  private static final String USER_ID = UUID.randomUUID().toString();
+
+  private static final AtomicInteger authRequests = new AtomicInteger();
+  private static final AtomicReference<Duration> authDelay = new AtomicReference<>(Duration.ZERO);
+  private static DisposableServer authServer;
+
+  private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+  private final List<Object> publishedEvents = new CopyOnWriteArrayList<>();
+  private final TokenRevocationService tokenRevocationService =
+      new TokenRevocationService(publishedEvents::add);
+  private final List<String> forwardedUserIds = new CopyOnWriteArrayList<>();
+  private final GatewayFilterChain chain = exchange -> {
+    forwardedUserIds.add(exchange.getRequest().getHeaders().getFirst("X-User-Id"));
+    return Mono.empty();
+  };
+
+  @BeforeAll
+  static void setUp() {
+    BlockHound.install();
+    authServer = HttpServer.create().port(0)
+        .route(routes -> routes.post("/api/v1/auth/validate-token", (request, response) -> {
+          // Only the first request is delayed, so hedged requests are answered at once
+          Duration delay = authRequests.getAndIncrement() == 0 ? authDelay.get() : Duration.ZERO;
+          if ("Bearer invalid".equals(request.requestHeaders().get(HttpHeaders.AUTHORIZATION))) {
+            return response.status(HttpStatus.UNAUTHORIZED.value()).send();
+          }
+          return response.sendString(Mono.just(USER_ID).delayElement(delay));
+        })).bindNow();
+  }
+
+  @AfterAll
+  static void tearDown() {
+    authServer.disposeNow();
+  }
+
+  @BeforeEach
+  void reset() {
+    authRequests.set(0);
+    authDelay.set(Duration.ZERO);
+  }
+
+  @Test
+  void testBlockHoundIsInstalled() {
+    Mono<String> blocking = Mono.fromCallable(() -> {
+      Thread.sleep(1);
+      return "";
+    }).subscribeOn(Schedulers.parallel());
+
+    Throwable error = blocking.materialize().block().getThrowable();
+    assertInstanceOf(BlockingOperationError.class, error);
+  }
+
+  @Test
+  void testRemoteValidationDoesNotBlock() {
+    filter(false, Duration.ofSeconds(5)).filter(exchange(token(60_000)), chain)
+        .subscribeOn(Schedulers.parallel()).block();
+
+    assertEquals(List.of(USER_ID), forwardedUserIds);
+    assertEquals(1, authRequests.get());
+  }
+
+  @Test
+  void testRemoteValidationHedgesSlowRequest() {
+    authDelay.set(Duration.ofSeconds(5));
+
+    filter(false, Duration.ofMillis(100)).filter(exchange(token(60_000)), chain)
+        .subscribeOn(Schedulers.parallel()).block(Duration.ofSeconds(2));
+
+    assertEquals(List.of(USER_ID), forwardedUserIds);
+    assertEquals(2, authRequests.get());
+  }
+
+  @Test
+  void testRemoteValidationDoesNotRetryRejectedToken() {
+    MockServerWebExchange exchange = exchange("invalid");
+
+    filter(false, Duration.ofSeconds(5)).filter(exchange, chain)
+        .subscribeOn(Schedulers.parallel()).block();
+
+    assertEquals(HttpStatus.UNAUTHORIZED, exchange.getResponse().getStatusCode());
+    assertEquals(List.of(), forwardedUserIds);
+    assertEquals(1, authRequests.get());
+  }
+
+  @Test
+  void testRemoteValidationIsCached() {
+    CustomGatewayFilter filter = filter(false, Duration.ofSeconds(5));
+    String token = token(60_000);
+
+    filter.filter(exchange(token), chain).subscribeOn(Schedulers.parallel()).block();
+    filter.filter(exchange(token), chain).subscribeOn(Schedulers.parallel()).block();
+
+    assertEquals(List.of(USER_ID, USER_ID), forwardedUserIds);
+    assertEquals(1, authRequests.get());
+    assertEquals(0.5, meterRegistry.get("cache.hit.ratio").gauge().value());
+  }
+
+  @Test
+  void testRemoteValidationCoalescesConcurrentMisses() {
+    authDelay.set(Duration.ofMillis(200));
+    CustomGatewayFilter filter = filter(false, Duration.ofSeconds(5));
+    String token = token(60_000);
+
+    Flux.range(0, 5).flatMap(i -> filter.filter(exchange(token), chain)
+        .subscribeOn(Schedulers.parallel())).blockLast();
+
+    assertEquals(5, forwardedUserIds.size());
+    assertEquals(1, authRequests.get());
+  }
+
+  @Test
+  void testRemoteValidationIsNotCachedPastExpiry() throws InterruptedException {
+    CustomGatewayFilter filter = filter(false, Duration.ofSeconds(5));
+    String token = token(-1_000);
+
+    filter.filter(exchange(token), chain).subscribeOn(Schedulers.parallel()).block();
+    // The cache sets the expiry of an entry after its validation has already been handed out
+    Thread.sleep(100);
+    filter.filter(exchange(token), chain).subscribeOn(Schedulers.parallel()).block();
+
+    assertEquals(2, authRequests.get());
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  void testLocalVerificationDoesNotBlock() {
+    tokenRevocationService.onPartitionsAssigned(mock(Consumer.class), List.of());
+
+    filter(true, Duration.ofSeconds(5)).filter(exchange(token(60_000)), chain)
+        .subscribeOn(Schedulers.parallel()).block();
+
+    assertEquals(List.of(USER_ID), forwardedUserIds);
+    assertEquals(0, authRequests.get());
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  void testLocalVerificationRejectsRefreshToken() {
+    tokenRevocationService.onPartitionsAssigned(mock(Consumer.class), List.of());
+    MockServerWebExchange exchange = exchange(token(60_000, "refresh"));
+
+    filter(true, Duration.ofSeconds(5)).filter(exchange, chain)
+        .subscribeOn(Schedulers.parallel()).block();
+
+    assertEquals(HttpStatus.UNAUTHORIZED, exchange.getResponse().getStatusCode());
+    assertEquals(List.of(), forwardedUserIds);
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  void testLocalVerificationUnavailableUntilRevocationsAreReplayed() {
+    TopicPartition partition = new TopicPartition(TokenRevocationService.REVOCATION_TOPIC, 0);
+    Consumer<String, String> consumer = mock(Consumer.class);
+    when(consumer.endOffsets(List.of(partition))).thenReturn(Map.of(partition, 1L));
+    when(consumer.position(partition)).thenReturn(0L);
+    tokenRevocationService.onPartitionsAssigned(consumer, List.of(partition));
+    tokenRevocationService.onApplicationReady();
+    MockServerWebExchange exchange = exchange(token(60_000));
+
+    filter(true, Duration.ofSeconds(5)).filter(exchange, chain)
+        .subscribeOn(Schedulers.parallel()).block();
+
+    assertEquals(HttpStatus.SERVICE_UNAVAILABLE, exchange.getResponse().getStatusCode());
+    assertEquals(List.of(), forwardedUserIds);
+
+    tokenRevocationService.onTokenRevoked("revoked", Instant.now().plusSeconds(60).toString(),
+        0, 0);
+
+    assertEquals(List.of(ReadinessState.REFUSING_TRAFFIC, ReadinessState.ACCEPTING_TRAFFIC),
+        publishedEvents.stream().map(event -> ((AvailabilityChangeEvent<?>) event).getState())
+            .toList());
+  }
+
+  private CustomGatewayFilter filter(boolean localVerification, Duration hedgeDelay) {
+    WebClient webClient =
+        WebClient.builder().baseUrl("http://localhost:" + authServer.port()).build();
+    AuthClient authClient = new AuthClient(webClient, hedgeDelay, 2, Duration.ofMillis(10));
+    TokenValidationCache tokenValidationCache = new TokenValidationCache(authClient,
+        new ObjectMapper(), Duration.ofMinutes(1), 100, meterRegistry);
+    JwtVerificationService jwtVerificationService =
+        new JwtVerificationService(SECRET_KEY, tokenRevocationService);
+    return new CustomGatewayFilter(tokenValidationCache, jwtVerificationService,
+        localVerification);
+  }
+
+  private String token(long expiresInMillis) {
+    return token(expiresInMillis, "access");
+  }
+
+  private String token(long expiresInMillis, String tokenType) {
+    return Jwts.builder()
+        .claims(Map.of("user_id", USER_ID, "unique_id", UUID.randomUUID().toString(),
+            "token_type", tokenType))
+        .subject("test@example.com")
+        .expiration(new Date(System.currentTimeMillis() + expiresInMillis))
+        .signWith(Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET_KEY))).compact();
+  }
+
+  private MockServerWebExchange exchange(String token) {
+    return MockServerWebExchange.from(MockServerHttpRequest.post("/api/v1/property")
+        .header(HttpHeaders.AUTHORIZATION, "Bearer " + token));
+  }
+}
@@ -3,9 +3,11 @@ package org.apartment;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.kafka.annotation.EnableKafka;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
 @EnableKafka
+@EnableScheduling
 public class AuthApplication {
   public static void main(String[] args) {
     SpringApplication.run(AuthApplication.class, args);
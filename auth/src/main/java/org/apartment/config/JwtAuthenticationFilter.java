@@ -9,9 +9,14 @@ import jakarta.servlet.FilterChain;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import java.io.IOException;
+import java.util.UUID;
 import org.apartment.dto.ResponseDto;
+import org.apartment.dto.TokenClaims;
+import org.apartment.entity.User;
 import org.apartment.repository.TokenRepository;
 import org.apartment.service.JwtService;
+import org.apartment.service.TokenRevocationService;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
@@ -30,15 +35,22 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
   private final JwtService jwtService;
   private final UserDetailsService userDetailsService;
   private final TokenRepository tokenRepository;
+  private final TokenRevocationService tokenRevocationService;
+  private final boolean statelessValidation;
 
   private final String bearerPrefix = "Bearer ";
   private final int bearerPrefixLength = bearerPrefix.length();
 
   public JwtAuthenticationFilter(JwtService jwtService, @Lazy UserDetailsService userDetailsService,
-                                 TokenRepository tokenRepository) {
+                                 TokenRepository tokenRepository,
+                                 TokenRevocationService tokenRevocationService,
+                                 @Value("${application.security.jwt.stateless-validation}")
+                                 boolean statelessValidation) {
     this.jwtService = jwtService;
     this.userDetailsService = userDetailsService;
     this.tokenRepository = tokenRepository;
+    this.tokenRevocationService = tokenRevocationService;
+    this.statelessValidation = statelessValidation;
   }
 
   @Override
@@ -57,19 +69,18 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         return;
       }
       final String jwt = authHeader.substring(bearerPrefixLength);
-      final String userEmail = jwtService.extractUsername(jwt);
+      final TokenClaims claims = jwtService.validateToken(jwt);
+      final String userEmail = claims.username();
       if (userEmail != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-        UserDetails userDetails = this.userDetailsService.loadUserByUsername(userEmail);
-        if (jwtService.isTokenValid(jwt, userDetails)) {
-          var isTokenValid =
-              tokenRepository.findTokenByValue(jwt).map(t -> !t.isRevoked()).orElse(false);
-          if (isTokenValid) {
-            UsernamePasswordAuthenticationToken authToken =
-                new UsernamePasswordAuthenticationToken(userDetails, null,
-                    userDetails.getAuthorities());
-            authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-            SecurityContextHolder.getContext().setAuthentication(authToken);
-          }
+        // Until the revocations are replayed the set may miss some, so the database decides
+        UserDetails userDetails = statelessValidation && tokenRevocationService.isCaughtUp()
+            ? userFromClaims(claims) : loadValidUser(jwt, claims);
+        if (userDetails != null) {
+          UsernamePasswordAuthenticationToken authToken =
+              new UsernamePasswordAuthenticationToken(userDetails, null,
+                  userDetails.getAuthorities());
+          authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+          SecurityContextHolder.getContext().setAuthentication(authToken);
         }
       }
       filterChain.doFilter(request, response);
@@ -85,6 +96,26 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     }
   }
 
+  // The parser has already verified the signature and expiry. Refresh tokens are never stored, so
+  // they are not revocable and must not be accepted as access tokens
+  private UserDetails userFromClaims(TokenClaims claims) {
+    if (claims.userId() == null || !JwtService.ACCESS_TOKEN_TYPE.equals(claims.tokenType())
+        || tokenRevocationService.isRevoked(claims.tokenId())) {
+      return null;
+    }
+    return User.builder().id(UUID.fromString(claims.userId())).email(claims.username()).build();
+  }
+
+  private UserDetails loadValidUser(String jwt, TokenClaims claims) {
+    UserDetails userDetails = this.userDetailsService.loadUserByUsername(claims.username());
+    if (!jwtService.isTokenValid(claims, userDetails)) {
+      return null;
+    }
+    var isTokenValid =
+        tokenRepository.findTokenByValue(jwt).map(t -> !t.isRevoked()).orElse(false);
+    return isTokenValid ? userDetails : null;
+  }
+
   public String convertObjectToJson(Object object) throws JsonProcessingException {
     if (object == null) {
       return null;
@@ -0,0 +1,7 @@
+package org.apartment.dto;
+
+import java.util.Date;
+
+public record TokenClaims(String username, String userId, String tokenId, String tokenType,
+                          Date expiration) {
+}
@@ -6,6 +6,8 @@ import jakarta.persistence.FetchType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import java.time.Instant;
+import java.util.UUID;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -19,14 +21,19 @@ import org.hibernate.annotations.UuidGenerator;
 @Entity
 public class Token {
   @Id
-  @UuidGenerator
-  private String id;
+  @UuidGenerator(algorithm = UuidV7Generator.class)
+  private UUID id;
 
   @Column(unique = true)
   public String token;
 
   public boolean revoked;
 
+  // The unique_id claim of the token, revocations are distributed by it
+  public String tokenId;
+
+  public Instant expiresAt;
+
   @ManyToOne(fetch = FetchType.LAZY)
   @JoinColumn(name = "user_id")
   public User user;
@@ -5,6 +5,7 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.Id;
 import jakarta.persistence.Table;
 import java.util.Collection;
+import java.util.UUID;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -21,8 +22,8 @@ import org.springframework.security.core.userdetails.UserDetails;
 @Builder
 public class User implements UserDetails {
   @Id
-  @UuidGenerator
-  private String id;
+  @UuidGenerator(algorithm = UuidV7Generator.class)
+  private UUID id;
   private String firstName;
   private String secondName;
   @Column(unique = true)
@@ -1,7 +1,9 @@
 package org.apartment.repository;
 
+import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
+import java.util.UUID;
 import org.apartment.entity.Token;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
@@ -10,18 +12,24 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 @Repository
-public interface TokenRepository extends JpaRepository<Token, String> {
+public interface TokenRepository extends JpaRepository<Token, UUID> {
   @Query(value = """
       select t from Token t inner join User u\s
       on t.user.id = u.id\s
       where u.id = :id and (t.revoked = false)\s
       """)
-  List<Token> findAllValidTokenByUser(@Param("id") String id);
+  List<Token> findAllValidTokenByUser(@Param("id") UUID id);
 
   @Modifying
   @Query("DELETE FROM Token t WHERE t.user.id = :userId ")
-  void deleteByUserId(@Param("userId") String userId);
+  void deleteByUserId(@Param("userId") UUID userId);
 
   @Query("select t from Token t where t.token = :token")
   Optional<Token> findTokenByValue(@Param("token") String token);
+
+  @Query("""
+      select t from Token t\s
+      where t.revoked = true and t.tokenId is not null and t.expiresAt > :now\s
+      """)
+  List<Token> findAllRevokedUnexpired(@Param("now") Instant now);
 }
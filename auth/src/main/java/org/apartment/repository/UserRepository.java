@@ -1,11 +1,12 @@
 package org.apartment.repository;
 
 import java.util.Optional;
+import java.util.UUID;
 import org.apartment.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
 @Repository
-public interface UserRepository extends JpaRepository<User, String> {
+public interface UserRepository extends JpaRepository<User, UUID> {
   Optional<User> findByEmail(String email);
 }
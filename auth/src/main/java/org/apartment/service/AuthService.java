@@ -6,6 +6,7 @@ import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apartment.dto.AccessRefreshTokensDto;
 import org.apartment.dto.LoginDto;
+import org.apartment.dto.TokenClaims;
 import org.apartment.entity.Token;
 import org.apartment.entity.User;
 import org.apartment.repository.TokenRepository;
@@ -30,6 +31,7 @@ public class AuthService {
   private final PasswordEncoder passwordEncoder;
   private final JwtService jwtService;
   private final AuthenticationManager authenticationManager;
+  private final TokenRevocationService tokenRevocationService;
 
   private final KafkaTemplate<String, String> kafkaTemplate;
 
@@ -38,14 +40,14 @@ public class AuthService {
     log.info("Registering user with email: {}", user.getEmail());
     user.setPassword(passwordEncoder.encode(user.getPassword()));
     var savedUser = userRepository.save(user);
-    var jwtToken = jwtService.generateToken(user, user.getId());
+    var jwtToken = jwtService.generateToken(user, user.getId().toString());
     saveUserToken(savedUser, jwtToken);
 
     kafkaTemplate.send("email_topic", savedUser.getEmail());
 
     log.info("User registered successfully: {}", user.getEmail());
     return AccessRefreshTokensDto.builder().accessToken(jwtToken)
-        .refreshToken(jwtService.generateRefreshToken(user, user.getId())).build();
+        .refreshToken(jwtService.generateRefreshToken(user, user.getId().toString())).build();
   }
 
   @Transactional
@@ -55,18 +57,20 @@ public class AuthService {
         new UsernamePasswordAuthenticationToken(request.getEmail(), request.getPassword()));
     var user = userRepository.findByEmail(request.getEmail())
         .orElseThrow(() -> new RuntimeException("User not found"));
-    var jwtToken = jwtService.generateToken(user, user.getId());
+    var jwtToken = jwtService.generateToken(user, user.getId().toString());
     revokeAllUserTokens(user);
     saveUserToken(user, jwtToken);
 
     log.info("User authenticated successfully: {}", request.getEmail());
     return AccessRefreshTokensDto.builder().accessToken(jwtToken)
-        .refreshToken(jwtService.generateRefreshToken(user, user.getId())).build();
+        .refreshToken(jwtService.generateRefreshToken(user, user.getId().toString())).build();
   }
 
   private void saveUserToken(User user, String jwtToken) {
     log.info("Saving token for user: {}", user.getEmail());
-    var token = Token.builder().user(user).token(jwtToken).revoked(false).build();
+    TokenClaims claims = jwtService.validateToken(jwtToken);
+    var token = Token.builder().user(user).token(jwtToken).revoked(false)
+        .tokenId(claims.tokenId()).expiresAt(claims.expiration().toInstant()).build();
     tokenRepository.save(token);
   }
 
@@ -78,6 +82,7 @@ public class AuthService {
     }
     validUserTokens.forEach(token -> token.setRevoked(true));
     tokenRepository.saveAll(validUserTokens);
+    tokenRevocationService.revoke(validUserTokens);
   }
 
   public AccessRefreshTokensDto refreshToken(HttpServletRequest request) {
@@ -89,14 +94,15 @@ public class AuthService {
     }
 
     String refreshToken = authHeader.substring(7);
-    String userEmail = jwtService.extractUsername(refreshToken);
+    TokenClaims claims = jwtService.validateToken(refreshToken);
+    String userEmail = claims.username();
 
     if (userEmail != null) {
       var user = this.userRepository.findByEmail(userEmail)
           .orElseThrow(() -> new UsernameNotFoundException("User not found"));
 
-      if (jwtService.isTokenValid(refreshToken, user)) {
-        String accessToken = jwtService.generateToken(user, user.getId());
+      if (jwtService.isTokenValid(claims, user)) {
+        String accessToken = jwtService.generateToken(user, user.getId().toString());
         revokeAllUserTokens(user);
         saveUserToken(user, accessToken);
 
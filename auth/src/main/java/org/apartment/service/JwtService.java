@@ -1,6 +1,7 @@
 package org.apartment.service;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
@@ -10,6 +11,7 @@ import java.util.Map;
 import java.util.UUID;
 import java.util.function.Function;
 import javax.crypto.SecretKey;
+import org.apartment.dto.TokenClaims;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -18,19 +20,44 @@ import org.springframework.web.server.ResponseStatusException;
 
 @Component
 public class JwtService {
-  @Value("${application.security.jwt.secret-key}")
-  private String secretKey;
-  @Value("${application.security.jwt.expiration}")
-  private long jwtExpiration;
-  @Value("${application.security.jwt.refresh-token.expiration}")
-  private long refreshExpiration;
+  private static final String USER_ID_CLAIM = "user_id";
+  private static final String TOKEN_ID_CLAIM = "unique_id";
+  private static final String TOKEN_TYPE_CLAIM = "token_type";
+  public static final String ACCESS_TOKEN_TYPE = "access";
+  public static final String REFRESH_TOKEN_TYPE = "refresh";
+
+  private final SecretKey signInKey;
+  private final JwtParser jwtParser;
+  private final long jwtExpiration;
+  private final long refreshExpiration;
+
+  public JwtService(@Value("${application.security.jwt.secret-key}") String secretKey,
+                    @Value("${application.security.jwt.expiration}") long jwtExpiration,
+                    @Value("${application.security.jwt.refresh-token.expiration}")
+                    long refreshExpiration) {
+    // The key and the parser are immutable and thread-safe, so they are built once
+    this.signInKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(secretKey));
+    this.jwtParser = Jwts.parser().verifyWith(signInKey).build();
+    this.jwtExpiration = jwtExpiration;
+    this.refreshExpiration = refreshExpiration;
+  }
+
+  /**
+   * Verifies the signature and expiration of the token with a single parse.
+   */
+  public TokenClaims validateToken(String token) {
+    Claims claims = extractAllClaims(token);
+    return new TokenClaims(claims.getSubject(), claims.get(USER_ID_CLAIM, String.class),
+        claims.get(TOKEN_ID_CLAIM, String.class), claims.get(TOKEN_TYPE_CLAIM, String.class),
+        claims.getExpiration());
+  }
 
   public String extractUsername(String token) {
     return extractClaim(token, Claims::getSubject);
   }
 
   public String extractUserId(String token) {
-    return extractClaim(token, claims -> (String) claims.get("user_id"));
+    return extractClaim(token, claims -> claims.get(USER_ID_CLAIM, String.class));
   }
 
   public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
@@ -39,7 +66,7 @@ public class JwtService {
   }
 
   public String generateToken(UserDetails userDetails, String userId) {
-    return buildToken(new HashMap<>(), userDetails, jwtExpiration, userId);
+    return buildToken(new HashMap<>(), userDetails, jwtExpiration, userId, ACCESS_TOKEN_TYPE);
   }
 
   public String extractUserIdFromAuthorizationHeader(String authorizationHeader) {
@@ -58,39 +85,32 @@ public class JwtService {
   }
 
   public String generateRefreshToken(UserDetails userDetails, String userId) {
-    return buildToken(new HashMap<>(), userDetails, refreshExpiration, userId);
+    return buildToken(new HashMap<>(), userDetails, refreshExpiration, userId,
+        REFRESH_TOKEN_TYPE);
   }
 
   private String buildToken(Map<String, Object> extraClaims, UserDetails userDetails,
-                            long expiration, String userId) {
-    extraClaims.put("user_id", userId);
-    extraClaims.put("unique_id", UUID.randomUUID().toString());
+                            long expiration, String userId, String tokenType) {
+    extraClaims.put(USER_ID_CLAIM, userId);
+    extraClaims.put(TOKEN_ID_CLAIM, UUID.randomUUID().toString());
+    extraClaims.put(TOKEN_TYPE_CLAIM, tokenType);
 
     return Jwts.builder().claims(extraClaims).subject(userDetails.getUsername())
         .issuedAt(new Date(System.currentTimeMillis()))
-        .expiration(new Date(System.currentTimeMillis() + expiration)).signWith(getSignInKey())
+        .expiration(new Date(System.currentTimeMillis() + expiration)).signWith(signInKey)
         .compact();
   }
 
   public boolean isTokenValid(String token, UserDetails userDetails) {
-    final String username = extractUsername(token);
-    return (username.equals(userDetails.getUsername())) && !isTokenExpired(token);
+    return isTokenValid(validateToken(token), userDetails);
   }
 
-  private boolean isTokenExpired(String token) {
-    return extractExpiration(token).before(new Date());
-  }
-
-  private Date extractExpiration(String token) {
-    return extractClaim(token, Claims::getExpiration);
+  public boolean isTokenValid(TokenClaims claims, UserDetails userDetails) {
+    return userDetails.getUsername().equals(claims.username())
+        && claims.expiration().after(new Date());
   }
 
   private Claims extractAllClaims(String token) {
-    return Jwts.parser().verifyWith(getSignInKey()).build().parseSignedClaims(token).getPayload();
-  }
-
-  private SecretKey getSignInKey() {
-    byte[] keyBytes = Decoders.BASE64.decode(secretKey);
-    return Keys.hmacShaKeyFor(keyBytes);
+    return jwtParser.parseSignedClaims(token).getPayload();
   }
 }
\ No newline at end of file
@@ -2,6 +2,7 @@ package org.apartment.service;
 
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import java.util.List;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apartment.exception.InvalidAuthorizationHeaderException;
@@ -18,6 +19,7 @@ import org.springframework.stereotype.Service;
 public class LogoutService implements LogoutHandler {
 
   private final TokenRepository tokenRepository;
+  private final TokenRevocationService tokenRevocationService;
 
   @Override
   public void logout(HttpServletRequest request, HttpServletResponse response,
@@ -36,6 +38,7 @@ public class LogoutService implements LogoutHandler {
       log.info("Revoking and expiring token: {}", jwt);
       storedToken.setRevoked(true);
       tokenRepository.save(storedToken);
+      tokenRevocationService.revoke(List.of(storedToken));
       SecurityContextHolder.clearContext();
       log.info("Successfully logged out user with token: {}", jwt);
     } else {
@@ -0,0 +1,116 @@
+package org.apartment.service;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.common.TopicPartition;
+import org.apartment.entity.Token;
+import org.apartment.repository.TokenRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.ConsumerAwareRebalanceListener;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.messaging.handler.annotation.Header;
+import org.springframework.messaging.handler.annotation.Payload;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Keeps the ids of revoked, not yet expired tokens in memory so that requests can be
+ * authenticated from the token alone. Revocations are published to {@link #REVOCATION_TOPIC}
+ * keyed by token id with the expiry instant as the value. Every instance replays the topic from
+ * the beginning on startup, since the token rows of deleted accounts are gone from the database,
+ * and is {@link #isCaughtUp() caught up} once it has read up to the end offsets it was assigned.
+ */
+@Service
+@Slf4j
+public class TokenRevocationService implements ConsumerAwareRebalanceListener {
+  public static final String REVOCATION_TOPIC = "token_revoked";
+
+  private final TokenRepository tokenRepository;
+  private final KafkaTemplate<String, String> kafkaTemplate;
+  private final Map<String, Instant> revokedTokens = new ConcurrentHashMap<>();
+  private final Map<TopicPartition, Long> catchUpOffsets = new ConcurrentHashMap<>();
+  private volatile boolean caughtUp;
+
+  @Autowired
+  public TokenRevocationService(TokenRepository tokenRepository,
+                                KafkaTemplate<String, String> kafkaTemplate) {
+    this.tokenRepository = tokenRepository;
+    this.kafkaTemplate = kafkaTemplate;
+  }
+
+  public boolean isRevoked(String tokenId) {
+    return tokenId == null || revokedTokens.containsKey(tokenId);
+  }
+
+  public boolean isCaughtUp() {
+    return caughtUp;
+  }
+
+  public void revoke(Collection<Token> tokens) {
+    Instant now = Instant.now();
+    for (Token token : tokens) {
+      if (token.getTokenId() == null || token.getExpiresAt() == null
+          || !token.getExpiresAt().isAfter(now)) {
+        continue;
+      }
+      revokedTokens.put(token.getTokenId(), token.getExpiresAt());
+      kafkaTemplate.send(REVOCATION_TOPIC, token.getTokenId(), token.getExpiresAt().toString());
+    }
+  }
+
+  @KafkaListener(topics = REVOCATION_TOPIC,
+      containerFactory = "revocationKafkaListenerContainerFactory")
+  public void onTokenRevoked(@Header(KafkaHeaders.RECEIVED_KEY) String tokenId,
+                             @Payload String expiresAt,
+                             @Header(KafkaHeaders.RECEIVED_PARTITION) int partition,
+                             @Header(KafkaHeaders.OFFSET) long offset) {
+    Instant expiry = Instant.parse(expiresAt);
+    if (expiry.isAfter(Instant.now())) {
+      revokedTokens.put(tokenId, expiry);
+    }
+    if (!caughtUp) {
+      catchUpOffsets.computeIfPresent(new TopicPartition(REVOCATION_TOPIC, partition),
+          (topicPartition, endOffset) -> offset + 1 >= endOffset ? null : endOffset);
+      checkCaughtUp();
+    }
+  }
+
+  @Override
+  public void onPartitionsAssigned(Consumer<?, ?> consumer, Collection<TopicPartition> partitions) {
+    if (caughtUp) {
+      return;
+    }
+    consumer.endOffsets(partitions).forEach((partition, endOffset) -> {
+      if (consumer.position(partition) < endOffset) {
+        catchUpOffsets.put(partition, endOffset);
+      }
+    });
+    checkCaughtUp();
+  }
+
+  private void checkCaughtUp() {
+    if (!caughtUp && catchUpOffsets.isEmpty()) {
+      caughtUp = true;
+      log.info("Replayed token revocations, {} revoked tokens", revokedTokens.size());
+    }
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  @Scheduled(initialDelayString = "${token-revocation.refresh-interval}",
+      fixedDelayString = "${token-revocation.refresh-interval}")
+  public void refresh() {
+    Instant now = Instant.now();
+    tokenRepository.findAllRevokedUnexpired(now)
+        .forEach(token -> revokedTokens.put(token.getTokenId(), token.getExpiresAt()));
+    revokedTokens.values().removeIf(expiresAt -> !expiresAt.isAfter(now));
+    log.info("Loaded {} revoked tokens", revokedTokens.size());
+  }
+}
@@ -4,6 +4,7 @@ import jakarta.persistence.EntityNotFoundException;
 import jakarta.transaction.Transactional;
 import java.security.Principal;
 import java.util.Optional;
+import java.util.UUID;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apartment.dto.ChangePasswordDto;
@@ -12,6 +13,7 @@ import org.apartment.repository.TokenRepository;
 import org.apartment.repository.UserRepository;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
@@ -24,6 +26,7 @@ public class UserService {
   private final UserRepository userRepository;
   private final TokenRepository tokenRepository;
   private final JwtService jwtService;
+  private final TokenRevocationService tokenRevocationService;
 
   private final KafkaTemplate<String, String> kafkaTemplate;
 
@@ -34,14 +37,15 @@ public class UserService {
     String userId = jwtService.extractUserIdFromAuthorizationHeader(authorizationHeader);
     log.info("Extracted user ID: {}", userId);
 
-    Optional<User> userOptional = userRepository.findById(userId);
+    Optional<User> userOptional = userRepository.findById(UUID.fromString(userId));
 
     userOptional.ifPresentOrElse(user -> {
       log.info("Found user with id: {}", userId);
       userRepository.delete(user);
       log.info("User with id: {} deleted successfully", userId);
 
-      tokenRepository.deleteByUserId(userId);
+      tokenRevocationService.revoke(tokenRepository.findAllValidTokenByUser(user.getId()));
+      tokenRepository.deleteByUserId(user.getId());
       log.info("Tokens for user with id: {} deleted successfully", userId);
 
       kafkaTemplate.send("account_data_delete", userId);
@@ -53,7 +57,10 @@ public class UserService {
   }
 
   public void changePassword(ChangePasswordDto request, Principal connectedUser) {
-    var user = (User) ((UsernamePasswordAuthenticationToken) connectedUser).getPrincipal();
+    var principal = (User) ((UsernamePasswordAuthenticationToken) connectedUser).getPrincipal();
+    // The principal is built from the token claims and carries no password
+    var user = userRepository.findById(principal.getId())
+        .orElseThrow(() -> new UsernameNotFoundException("User not found"));
     log.info("Attempting to change password for user: {}", user.getEmail());
 
     if (!passwordEncoder.matches(request.getCurrentPassword(), user.getPassword())) {
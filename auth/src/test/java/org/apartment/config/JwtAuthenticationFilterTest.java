@@ -1,17 +1,53 @@
 package org.apartment.config;
 
 import static org.junit.Assert.assertNull;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
+import java.util.Optional;
+import java.util.UUID;
 import org.apartment.dto.ResponseDto;
+import org.apartment.entity.Token;
+import org.apartment.entity.User;
+import org.apartment.repository.TokenRepository;
+import org.apartment.service.JwtService;
+import org.apartment.service.TokenRevocationService;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetailsService;
 
 class JwtAuthenticationFilterTest {
+  private static final String SECRET_KEY =
+      "7A5B713377684E693055426D673968734E2B573154424C646742734B6F755274";
+
+  private final JwtService jwtService = new JwtService(SECRET_KEY, 25000, 1209600000);
+  private final UserDetailsService userDetailsService = mock(UserDetailsService.class);
+  private final TokenRepository tokenRepository = mock(TokenRepository.class);
+  private final TokenRevocationService tokenRevocationService =
+      mock(TokenRevocationService.class);
 
   private final JwtAuthenticationFilter jwtAuthenticationFilter =
-      new JwtAuthenticationFilter(null, null, null);
+      new JwtAuthenticationFilter(jwtService, userDetailsService, tokenRepository,
+          tokenRevocationService, true);
+
+  @AfterEach
+  void tearDown() {
+    SecurityContextHolder.clearContext();
+  }
 
   @Test
   void convertObjectToJson_ShouldConvertObjectToJson() throws JsonProcessingException {
@@ -29,4 +65,67 @@ class JwtAuthenticationFilterTest {
 
     assertNull(json, null);
   }
-}
\ No newline at end of file
+
+  @Test
+  void doFilter_ShouldAuthenticateFromClaimsWithoutQueries() throws Exception {
+    User user = User.builder().id(UUID.randomUUID()).email("test@example.com").build();
+    when(tokenRevocationService.isCaughtUp()).thenReturn(true);
+    when(tokenRevocationService.isRevoked(any())).thenReturn(false);
+
+    jwtAuthenticationFilter.doFilter(request(jwtService.generateToken(user,
+        user.getId().toString())), new MockHttpServletResponse(), new MockFilterChain());
+
+    Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+    assertNotNull(authentication);
+    User principal = (User) authentication.getPrincipal();
+    assertEquals(user.getId(), principal.getId());
+    assertEquals(user.getEmail(), principal.getEmail());
+    verifyNoInteractions(userDetailsService, tokenRepository);
+  }
+
+  @Test
+  void doFilter_ShouldNotAuthenticateRevokedToken() throws Exception {
+    User user = User.builder().id(UUID.randomUUID()).email("test@example.com").build();
+    when(tokenRevocationService.isCaughtUp()).thenReturn(true);
+    when(tokenRevocationService.isRevoked(any())).thenReturn(true);
+
+    jwtAuthenticationFilter.doFilter(request(jwtService.generateToken(user,
+        user.getId().toString())), new MockHttpServletResponse(), new MockFilterChain());
+
+    assertNull(SecurityContextHolder.getContext().getAuthentication());
+  }
+
+  @Test
+  void doFilter_ShouldNotAuthenticateRefreshToken() throws Exception {
+    User user = User.builder().id(UUID.randomUUID()).email("test@example.com").build();
+    when(tokenRevocationService.isCaughtUp()).thenReturn(true);
+    when(tokenRevocationService.isRevoked(any())).thenReturn(false);
+
+    jwtAuthenticationFilter.doFilter(request(jwtService.generateRefreshToken(user,
+        user.getId().toString())), new MockHttpServletResponse(), new MockFilterChain());
+
+    assertNull(SecurityContextHolder.getContext().getAuthentication());
+  }
+
+  @Test
+  void doFilter_ShouldCheckDatabaseUntilRevocationsAreReplayed() throws Exception {
+    User user = User.builder().id(UUID.randomUUID()).email("test@example.com").build();
+    String token = jwtService.generateToken(user, user.getId().toString());
+    when(userDetailsService.loadUserByUsername(user.getEmail())).thenReturn(user);
+    when(tokenRepository.findTokenByValue(token))
+        .thenReturn(Optional.of(Token.builder().token(token).revoked(true).build()));
+
+    jwtAuthenticationFilter.doFilter(request(token), new MockHttpServletResponse(),
+        new MockFilterChain());
+
+    assertNull(SecurityContextHolder.getContext().getAuthentication());
+    verify(tokenRevocationService, never()).isRevoked(any());
+  }
+
+  private MockHttpServletRequest request(String token) {
+    MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/users");
+    request.setServletPath("/api/v1/users");
+    request.addHeader(HttpHeaders.AUTHORIZATION, "Bearer " + token);
+    return request;
+  }
+}
@@ -172,4 +172,20 @@ class SecurityIntegrationTest {
             post(AUTHENTICATE_URL).contentType(MediaType.APPLICATION_JSON).content(oldAuthRequestJson))
         .andExpect(status().isUnauthorized());
   }
+
+  @Test
+  void testRevokedTokenIsRejected() throws Exception {
+    String email = getUniqueEmail();
+    String revokedToken = registerUser(email).getAccessToken();
+    authenticateUser(email);
+
+    ChangePasswordDto changePasswordRequest =
+        new ChangePasswordDto(password, "NewPassword@456)", "NewPassword@456)");
+
+    mockMvc.perform(
+            put(CHANGE_PASSWORD_URL).header(HttpHeaders.AUTHORIZATION, "Bearer " + revokedToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(changePasswordRequest)))
+        .andExpect(status().isForbidden());
+  }
 }
\ No newline at end of file
@@ -1,6 +1,7 @@
 package org.apartment.service;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
@@ -8,22 +9,25 @@ import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
 import io.jsonwebtoken.security.SignatureException;
+import java.util.Date;
 import java.util.UUID;
+import org.apartment.dto.TokenClaims;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.web.server.ResponseStatusException;
 
 @ExtendWith(MockitoExtension.class)
 class JwtServiceTest {
-  @InjectMocks
+  private static final String SECRET_KEY =
+      "7A5B713377684E693055426D673968734E2B573154424C646742734B6F755274";
+
   private JwtService jwtService;
 
   @Mock
@@ -33,10 +37,7 @@ class JwtServiceTest {
   void setUp() {
     MockitoAnnotations.openMocks(this);
 
-    ReflectionTestUtils.setField(jwtService, "secretKey",
-        "7A5B713377684E693055426D673968734E2B573154424C646742734B6F755274");
-    ReflectionTestUtils.setField(jwtService, "jwtExpiration", 25000);
-    ReflectionTestUtils.setField(jwtService, "refreshExpiration", 1209600000);
+    jwtService = new JwtService(SECRET_KEY, 25000, 1209600000);
   }
 
   @Test
@@ -87,6 +88,50 @@ class JwtServiceTest {
     assertEquals(userId, extractedUserId);
   }
 
+  @Test
+  void testValidateToken() {
+    when(userDetails.getUsername()).thenReturn("test@gmail.com");
+    String userId = UUID.randomUUID().toString();
+    String token = jwtService.generateToken(userDetails, userId);
+
+    TokenClaims claims = jwtService.validateToken(token);
+
+    assertEquals("test@gmail.com", claims.username());
+    assertEquals(userId, claims.userId());
+    assertEquals(JwtService.ACCESS_TOKEN_TYPE, claims.tokenType());
+    assertTrue(claims.expiration().after(new Date()));
+    assertTrue(jwtService.isTokenValid(claims, userDetails));
+  }
+
+  @Test
+  void testValidateToken_RefreshTokenType() {
+    when(userDetails.getUsername()).thenReturn("test@gmail.com");
+    String token = jwtService.generateRefreshToken(userDetails, UUID.randomUUID().toString());
+
+    assertEquals(JwtService.REFRESH_TOKEN_TYPE, jwtService.validateToken(token).tokenType());
+  }
+
+  @Test
+  void testIsTokenValid_OtherUser() {
+    when(userDetails.getUsername()).thenReturn("test@gmail.com");
+    String token = jwtService.generateToken(userDetails, UUID.randomUUID().toString());
+    TokenClaims claims = jwtService.validateToken(token);
+
+    UserDetails otherUser = mock(UserDetails.class);
+    when(otherUser.getUsername()).thenReturn("other@gmail.com");
+
+    assertFalse(jwtService.isTokenValid(claims, otherUser));
+  }
+
+  @Test
+  void testValidateToken_Expired() {
+    JwtService expiringJwtService = new JwtService(SECRET_KEY, -1000, -1000);
+    when(userDetails.getUsername()).thenReturn("test@gmail.com");
+    String token = expiringJwtService.generateToken(userDetails, UUID.randomUUID().toString());
+
+    assertThrows(ExpiredJwtException.class, () -> jwtService.validateToken(token));
+  }
+
   @Test
   void testExtractUserIdFromAuthorizationHeader_MissingHeader() {
     assertThrows(ResponseStatusException.class,
@@ -8,6 +8,7 @@ import static org.mockito.Mockito.when;
 
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import java.util.List;
 import java.util.Optional;
 import org.apartment.entity.Token;
 import org.apartment.exception.InvalidAuthorizationHeaderException;
@@ -23,6 +24,9 @@ class LogoutServiceTest {
   @Mock
   private TokenRepository tokenRepository;
 
+  @Mock
+  private TokenRevocationService tokenRevocationService;
+
   @Mock
   private HttpServletRequest request;
 
@@ -37,7 +41,7 @@ class LogoutServiceTest {
   @BeforeEach
   void setUp() {
     MockitoAnnotations.openMocks(this);
-    logoutService = new LogoutService(tokenRepository);
+    logoutService = new LogoutService(tokenRepository, tokenRevocationService);
   }
 
   @Test
@@ -54,6 +58,7 @@ class LogoutServiceTest {
     logoutService.logout(request, response, authentication);
 
     verify(tokenRepository).save(storedToken);
+    verify(tokenRevocationService).revoke(List.of(storedToken));
   }
 
   @Test
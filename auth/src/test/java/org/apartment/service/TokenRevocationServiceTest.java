@@ -0,0 +1,118 @@
+package org.apartment.service;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.common.TopicPartition;
+import org.apartment.entity.Token;
+import org.apartment.repository.TokenRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.kafka.core.KafkaTemplate;
+
+class TokenRevocationServiceTest {
+  @Mock
+  private TokenRepository tokenRepository;
+
+  @Mock
+  private KafkaTemplate<String, String> kafkaTemplate;
+
+  private TokenRevocationService tokenRevocationService;
+
+  @BeforeEach
+  void setUp() {
+    MockitoAnnotations.openMocks(this);
+    tokenRevocationService = new TokenRevocationService(tokenRepository, kafkaTemplate);
+  }
+
+  @Test
+  void testRevoke_PublishesRevocation() {
+    Instant expiresAt = Instant.now().plus(1, ChronoUnit.HOURS);
+
+    tokenRevocationService.revoke(List.of(token("revoked", expiresAt)));
+
+    assertTrue(tokenRevocationService.isRevoked("revoked"));
+    assertFalse(tokenRevocationService.isRevoked("valid"));
+    verify(kafkaTemplate).send(TokenRevocationService.REVOCATION_TOPIC, "revoked",
+        expiresAt.toString());
+  }
+
+  @Test
+  void testRevoke_SkipsExpiredTokens() {
+    tokenRevocationService.revoke(List.of(token("expired", Instant.now().minusSeconds(1))));
+
+    assertFalse(tokenRevocationService.isRevoked("expired"));
+    verify(kafkaTemplate, never()).send(anyString(), anyString(), anyString());
+  }
+
+  @Test
+  void testOnTokenRevoked() {
+    tokenRevocationService.onTokenRevoked("remote",
+        Instant.now().plus(1, ChronoUnit.HOURS).toString(), 0, 0);
+
+    assertTrue(tokenRevocationService.isRevoked("remote"));
+  }
+
+  @Test
+  void testRefresh_LoadsRevokedTokensAndEvictsExpired() throws InterruptedException {
+    tokenRevocationService.revoke(List.of(token("expired", Instant.now().plusMillis(50))));
+    Thread.sleep(100);
+    when(tokenRepository.findAllRevokedUnexpired(any(Instant.class)))
+        .thenReturn(List.of(token("stored", Instant.now().plus(1, ChronoUnit.HOURS))));
+
+    tokenRevocationService.refresh();
+
+    assertTrue(tokenRevocationService.isRevoked("stored"));
+    assertFalse(tokenRevocationService.isRevoked("expired"));
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  void testCaughtUpOnceAssignedEndOffsetsAreRead() {
+    TopicPartition first = new TopicPartition(TokenRevocationService.REVOCATION_TOPIC, 0);
+    TopicPartition second = new TopicPartition(TokenRevocationService.REVOCATION_TOPIC, 1);
+    Consumer<String, String> consumer = mock(Consumer.class);
+    when(consumer.endOffsets(List.of(first, second))).thenReturn(Map.of(first, 2L, second, 0L));
+    when(consumer.position(first)).thenReturn(0L);
+    when(consumer.position(second)).thenReturn(0L);
+    String expiresAt = Instant.now().plus(1, ChronoUnit.HOURS).toString();
+
+    tokenRevocationService.onPartitionsAssigned(consumer, List.of(first, second));
+    tokenRevocationService.onTokenRevoked("first", expiresAt, 0, 0);
+    assertFalse(tokenRevocationService.isCaughtUp());
+
+    tokenRevocationService.onTokenRevoked("second", expiresAt, 0, 1);
+    assertTrue(tokenRevocationService.isCaughtUp());
+    assertTrue(tokenRevocationService.isRevoked("first"));
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  void testCaughtUpWhenTopicIsEmpty() {
+    tokenRevocationService.onPartitionsAssigned(mock(Consumer.class), List.of());
+
+    assertTrue(tokenRevocationService.isCaughtUp());
+  }
+
+  @Test
+  void testIsRevoked_TokenWithoutId() {
+    assertTrue(tokenRevocationService.isRevoked(null));
+  }
+
+  private Token token(String tokenId, Instant expiresAt) {
+    return Token.builder().tokenId(tokenId).expiresAt(expiresAt).revoked(true).build();
+  }
+}
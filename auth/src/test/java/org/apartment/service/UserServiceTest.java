@@ -5,9 +5,11 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.security.Principal;
+import java.util.Optional;
 import java.util.UUID;
 import org.apartment.dto.ChangePasswordDto;
 import org.apartment.entity.User;
@@ -31,7 +33,7 @@ class UserServiceTest {
   private UserRepository userRepository;
 
   private final User testUser =
-      User.builder().id(UUID.randomUUID().toString()).firstName("John").secondName("Doe")
+      User.builder().id(UUID.randomUUID()).firstName("John").secondName("Doe")
           .email("test@example.com").password("encodedPassword").build();
 
   private final String currentPassword = "currentPassword";
@@ -40,6 +42,7 @@ class UserServiceTest {
   @BeforeEach
   void setUp() {
     MockitoAnnotations.openMocks(this);
+    when(userRepository.findById(testUser.getId())).thenReturn(Optional.of(testUser));
   }
 
   @Test
@@ -85,4 +88,19 @@ class UserServiceTest {
     assertThrows(IllegalStateException.class,
         () -> userService.changePassword(changePasswordRequest, mockPrincipal));
   }
+
+  @Test
+  void testChangePasswordLoadsUserOfClaimsPrincipal() {
+    User principal = User.builder().id(testUser.getId()).email(testUser.getEmail()).build();
+    Principal mockPrincipal = new UsernamePasswordAuthenticationToken(principal, null);
+
+    when(passwordEncoder.matches(currentPassword, "encodedPassword")).thenReturn(true);
+    when(passwordEncoder.encode(eq(newPassword))).thenReturn("encodedNewPassword");
+
+    userService.changePassword(new ChangePasswordDto(currentPassword, newPassword, newPassword),
+        mockPrincipal);
+
+    verify(userRepository).save(testUser);
+    assertEquals("encodedNewPassword", testUser.getPassword());
+  }
 }
\ No newline at end of file
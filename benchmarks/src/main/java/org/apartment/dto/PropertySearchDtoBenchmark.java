@@ -0,0 +1,53 @@
+package org.apartment.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+import org.apartment.entity.PropertyDealType;
+import org.apartment.entity.PropertyType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PropertySearchDtoBenchmark {
+  private PropertySearchDto filled;
+  private PropertySearchDto empty;
+
+  @Setup
+  public void setUp() {
+    filled = PropertySearchDto.builder().keyword("  Sunny Balcony ").city(" Moscow")
+        .status("available ").propertyDealType(PropertyDealType.RENT)
+        .minPrice(new BigDecimal("100000.00")).maxPrice(new BigDecimal("300000.00"))
+        .startDate(LocalDate.of(2024, 1, 1)).endDate(LocalDate.of(2024, 12, 31))
+        .propertyType(PropertyType.APARTMENT).build();
+    empty = new PropertySearchDto();
+  }
+
+  @Benchmark
+  public PropertySearchDto normalizeFilled() {
+    return filled.normalized();
+  }
+
+  @Benchmark
+  public PropertySearchDto normalizeEmpty() {
+    return empty.normalized();
+  }
+
+  @Benchmark
+  public int normalizedCacheKeyHash() {
+    return filled.normalized().hashCode();
+  }
+}
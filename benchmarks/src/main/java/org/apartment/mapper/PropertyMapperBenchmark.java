@@ -0,0 +1,54 @@
+package org.apartment.mapper;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.apartment.dto.PropertyDto;
+import org.apartment.entity.Property;
+import org.apartment.entity.PropertyDealType;
+import org.apartment.entity.PropertyImage;
+import org.apartment.entity.PropertyStatus;
+import org.apartment.entity.PropertyType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PropertyMapperBenchmark {
+  private Property property;
+
+  @Setup
+  public void setUp() {
+    property = Property.builder().id(UUID.randomUUID()).title("Sunny two-room apartment")
+        .description("Renovated apartment with a balcony, five minutes from the metro")
+        .type(PropertyType.APARTMENT).propertyDealType(PropertyDealType.RENT)
+        .price(BigDecimal.valueOf(185_000)).city("Moscow").status(PropertyStatus.AVAILABLE)
+        .postedBy(UUID.randomUUID().toString()).createdAt(LocalDate.of(2024, 12, 11))
+        .updatedAt(LocalDate.of(2024, 12, 11)).build();
+    property.setImages(List.of(image(), image(), image()));
+  }
+
+  @Benchmark
+  public PropertyDto toDto() {
+    return PropertyMapper.INSTANCE.toDto(property);
+  }
+
+  private PropertyImage image() {
+    return PropertyImage.builder().id(UUID.randomUUID()).property(property)
+        .imageUrl("http://localhost:4566/bucket/" + UUID.randomUUID() + ".jpg").build();
+  }
+}
@@ -0,0 +1,58 @@
+package org.apartment.service;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.TimeUnit;
+import org.apartment.benchmark.SampleJpegs;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.web.multipart.MultipartFile;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx1g")
+public class FileValidationServiceBenchmark {
+  @Param({"1600x1200", "4032x3024"})
+  private String resolution;
+
+  private final FileValidationService fileValidationService = new FileValidationService();
+  private MultipartFile[] files;
+
+  @Setup
+  public void setUp() throws IOException {
+    String[] dimensions = resolution.split("x");
+    int width = Integer.parseInt(dimensions[0]);
+    int height = Integer.parseInt(dimensions[1]);
+
+    files = new MultipartFile[3];
+    for (int i = 0; i < files.length; i++) {
+      files[i] = new MockMultipartFile("image", "photo-" + i + ".jpg", "image/jpeg",
+          SampleJpegs.photo(width, height, i));
+    }
+  }
+
+  @Benchmark
+  public MultipartFile[] validateFiles() throws IOException {
+    fileValidationService.validateFiles(files);
+    for (MultipartFile file : files) {
+      try (InputStream inputStream = new BufferedInputStream(file.getInputStream())) {
+        fileValidationService.validateImageHeader(inputStream);
+      }
+    }
+    return files;
+  }
+}
@@ -0,0 +1,77 @@
+package org.apartment.service;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import java.util.Date;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import javax.crypto.SecretKey;
+import org.apartment.entity.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtServiceBenchmark {
+  private static final String SECRET_KEY =
+      "7A5B713377684E693055426D673968734E2B573154424C646742734B6F755274";
+
+  private final JwtService jwtService = new JwtService(SECRET_KEY, 3_600_000, 1_209_600_000);
+  private User user;
+  private String token;
+
+  @Setup
+  public void setUp() {
+    user = User.builder().id(UUID.randomUUID()).email("benchmark@example.com").build();
+    token = jwtService.generateToken(user, user.getId().toString());
+  }
+
+  @Benchmark
+  public String generateToken() {
+    return jwtService.generateToken(user, user.getId().toString());
+  }
+
+  @Benchmark
+  public String extractUserId() {
+    return jwtService.extractUserId(token);
+  }
+
+  @Benchmark
+  public boolean isTokenValid() {
+    return jwtService.isTokenValid(token, user);
+  }
+
+  // The authentication filter's per-request work: one parse for the subject, user id and expiry
+  @Benchmark
+  public boolean validateToken() {
+    return jwtService.isTokenValid(jwtService.validateToken(token), user);
+  }
+
+  // The same work as it was done before the key and parser were cached: the key was decoded and a
+  // parser built for every parse, and the token parsed once for the subject and twice to validate
+  @Benchmark
+  public boolean validateTokenUncached() {
+    String username = parseUncached().getSubject();
+    return username.equals(parseUncached().getSubject())
+        && !parseUncached().getExpiration().before(new Date());
+  }
+
+  private Claims parseUncached() {
+    SecretKey key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET_KEY));
+    return Jwts.parser().verifyWith(key).build().parseSignedClaims(token).getPayload();
+  }
+}
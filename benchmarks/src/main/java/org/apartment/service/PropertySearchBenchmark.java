@@ -0,0 +1,159 @@
+package org.apartment.service;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.apartment.dto.PropertySearchDto;
+import org.apartment.dto.PropertySearchHit;
+import org.apartment.entity.Property;
+import org.apartment.entity.PropertyDealType;
+import org.apartment.entity.PropertyImage;
+import org.apartment.entity.PropertyStatus;
+import org.apartment.entity.PropertyType;
+import org.hibernate.search.engine.search.query.SearchResult;
+import org.hibernate.search.mapper.pojo.automaticindexing.ReindexOnUpdate;
+import org.hibernate.search.mapper.pojo.mapping.definition.annotation.AnnotatedTypeSource;
+import org.hibernate.search.mapper.pojo.mapping.definition.programmatic.TypeMappingStep;
+import org.hibernate.search.mapper.pojo.standalone.mapping.CloseableSearchMapping;
+import org.hibernate.search.mapper.pojo.standalone.mapping.SearchMapping;
+import org.hibernate.search.mapper.pojo.standalone.mapping.StandalonePojoMappingConfigurer;
+import org.hibernate.search.mapper.pojo.standalone.session.SearchSession;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.util.FileSystemUtils;
+
+/**
+ * Runs the property search query built by {@link PropertySearchService#buildQuery} against a
+ * Lucene index built from the {@link Property} mapping through the standalone POJO mapper.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class PropertySearchBenchmark {
+  private static final String[] CITIES = {
+      "Moscow", "Saint Petersburg", "Kazan", "Sochi", "Novosibirsk", "Yekaterinburg",
+      "New York", "Los Angeles", "Miami", "Chicago", "Berlin", "Paris"};
+  private static final String[] WORDS = {
+      "sunny", "spacious", "renovated", "cozy", "modern", "quiet", "balcony", "garden",
+      "parking", "view", "downtown", "metro", "furnished", "terrace", "family", "studio",
+      "loft", "pool", "park", "school"};
+
+  @Param("100000")
+  private int documents;
+
+  private Path indexDirectory;
+  private CloseableSearchMapping searchMapping;
+
+  @Setup(Level.Trial)
+  public void setUp() throws IOException {
+    indexDirectory = Files.createTempDirectory("property-index");
+    searchMapping = SearchMapping.builder(AnnotatedTypeSource.fromClasses(Property.class,
+            PropertySearchHit.class, PropertySearchHit.Image.class))
+        .property("hibernate.search.backend.directory.root", indexDirectory.toString())
+        .property("hibernate.search.mapping.configurer",
+            (StandalonePojoMappingConfigurer) context -> {
+              TypeMappingStep property = context.programmaticMapping().type(Property.class);
+              property.searchEntity();
+              property.property("id").documentId();
+              context.defaultReindexOnUpdate(ReindexOnUpdate.SHALLOW);
+            }).build();
+
+    Random random = new Random(42);
+    int batchSize = 1_000;
+    for (int start = 0; start < documents; start += batchSize) {
+      try (SearchSession session = searchMapping.createSession()) {
+        for (int i = start; i < Math.min(start + batchSize, documents); i++) {
+          session.indexingPlan().add(property(random));
+        }
+      }
+    }
+    searchMapping.scope(Property.class).workspace().refresh();
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws IOException {
+    searchMapping.close();
+    FileSystemUtils.deleteRecursively(indexDirectory);
+  }
+
+  @Benchmark
+  public SearchResult<PropertySearchHit> searchByKeywordWithFacets() {
+    return search(PropertySearchDto.builder().keyword("balcony metro").build());
+  }
+
+  @Benchmark
+  public SearchResult<PropertySearchHit> searchByCityAndTypeWithFacets() {
+    return search(PropertySearchDto.builder().city("kazan").propertyType(PropertyType.APARTMENT)
+        .build());
+  }
+
+  @Benchmark
+  public SearchResult<PropertySearchHit> searchByStatusAndDealTypeWithFacets() {
+    return search(PropertySearchDto.builder().status("available")
+        .propertyDealType(PropertyDealType.RENT).build());
+  }
+
+  private SearchResult<PropertySearchHit> search(PropertySearchDto propertySearchDto) {
+    try (SearchSession session = searchMapping.createSession()) {
+      return PropertySearchService.buildQuery(session.search(Property.class), propertySearchDto)
+          .fetch(0, 10);
+    }
+  }
+
+  private Property property(Random random) {
+    LocalDate createdAt = LocalDate.of(2023, 1, 1).plusDays(random.nextInt(730));
+    Property property = Property.builder().id(UUID.randomUUID())
+        .title(words(random, 3)).description(words(random, 25))
+        .type(PropertyType.values()[random.nextInt(PropertyType.values().length)])
+        .propertyDealType(
+            PropertyDealType.values()[random.nextInt(PropertyDealType.values().length)])
+        .price(BigDecimal.valueOf((long) (30_000 * Math.pow(100, random.nextDouble()))))
+        .city(CITIES[random.nextInt(CITIES.length)])
+        .status(PropertyStatus.values()[random.nextInt(PropertyStatus.values().length)])
+        .postedBy(UUID.randomUUID().toString()).createdAt(createdAt).updatedAt(createdAt)
+        .build();
+
+    List<PropertyImage> images = new ArrayList<>();
+    for (int i = random.nextInt(4); i > 0; i--) {
+      images.add(PropertyImage.builder().id(UUID.randomUUID()).property(property)
+          .imageUrl("http://localhost:4566/bucket/" + UUID.randomUUID() + ".jpg")
+          .variants(Map.of(320, "http://localhost:4566/bucket/" + UUID.randomUUID() + ".jpg"))
+          .build());
+    }
+    property.setImages(images);
+    return property;
+  }
+
+  private static String words(Random random, int count) {
+    StringBuilder text = new StringBuilder();
+    for (int i = 0; i < count; i++) {
+      if (i > 0) {
+        text.append(' ');
+      }
+      text.append(WORDS[random.nextInt(WORDS.length)]);
+    }
+    return text.toString();
+  }
+}
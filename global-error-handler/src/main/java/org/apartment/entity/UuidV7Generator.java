@@ -0,0 +1,46 @@
+package org.apartment.entity;
+
+import java.security.SecureRandom;
+import java.util.UUID;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.uuid.UuidValueGenerator;
+
+/**
+ * Generates RFC 9562 version 7 UUIDs: a 48-bit millisecond timestamp followed by a 12-bit
+ * counter and random bits, so keys are inserted at the right edge of the primary key index.
+ */
+public class UuidV7Generator implements UuidValueGenerator {
+  private static final SecureRandom RANDOM = new SecureRandom();
+  private static final int COUNTER_BITS = 12;
+  private static final long MAX_COUNTER = (1L << COUNTER_BITS) - 1;
+
+  private static long lastTimestamp;
+  private static long counter;
+
+  @Override
+  public UUID generateUuid(SharedSessionContractImplementor session) {
+    return next();
+  }
+
+  public static UUID next() {
+    long timestampAndCounter = nextTimestampAndCounter();
+    long timestamp = timestampAndCounter >>> COUNTER_BITS;
+    long sequence = timestampAndCounter & MAX_COUNTER;
+
+    long mostSigBits = (timestamp << 16) | (0x7L << 12) | sequence;
+    long leastSigBits = (RANDOM.nextLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+    return new UUID(mostSigBits, leastSigBits);
+  }
+
+  private static synchronized long nextTimestampAndCounter() {
+    long now = System.currentTimeMillis();
+    if (now > lastTimestamp) {
+      lastTimestamp = now;
+      counter = RANDOM.nextInt(1 << (COUNTER_BITS - 1));
+    } else if (++counter > MAX_COUNTER) {
+      lastTimestamp++;
+      counter = 0;
+    }
+    return (lastTimestamp << COUNTER_BITS) | counter;
+  }
+}
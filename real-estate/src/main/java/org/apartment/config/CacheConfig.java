@@ -0,0 +1,51 @@
+package org.apartment.config;
+
+import java.util.Objects;
+import java.util.stream.Stream;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.support.CompositeCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@EnableCaching
+@Configuration
+public class CacheConfig {
+  public static final String PROPERTIES_CACHE = "properties";
+  public static final String PROPERTY_SEARCH_CACHE = "property-search";
+  private static final String OUTBOX_POLLING = "outbox-polling";
+
+  @Value("${property-cache.spec}")
+  private String cacheSpec;
+
+  @Value("${spring.jpa.properties.hibernate.search.coordination.strategy:none}")
+  private String searchCoordinationStrategy;
+
+  @Bean
+  public CacheManager cacheManager() {
+    // With outbox coordination the index catches up some time after the commit that evicts the
+    // cache, so search results would be cached stale. The search cache is then a no-op.
+    boolean cacheSearches = !OUTBOX_POLLING.equals(searchCoordinationStrategy);
+    CaffeineCacheManager caffeineCacheManager = cacheSearches
+        ? new CaffeineCacheManager(PROPERTIES_CACHE, PROPERTY_SEARCH_CACHE)
+        : new CaffeineCacheManager(PROPERTIES_CACHE);
+    caffeineCacheManager.setCacheSpecification(cacheSpec);
+    CompositeCacheManager cacheManager = new CompositeCacheManager(caffeineCacheManager);
+    cacheManager.setFallbackToNoOpCache(!cacheSearches);
+    cacheManager.afterPropertiesSet();
+    // Evictions issued inside a transaction are applied only after it commits
+    return new TransactionAwareCacheManagerProxy(cacheManager);
+  }
+
+  /**
+   * Clears every cache holding property data. Called inside a transaction, this happens on commit.
+   */
+  public static void evictPropertyCaches(CacheManager cacheManager) {
+    Stream.of(PROPERTIES_CACHE, PROPERTY_SEARCH_CACHE).map(cacheManager::getCache)
+        .filter(Objects::nonNull).forEach(Cache::clear);
+  }
+}
@@ -1,8 +1,11 @@
 package org.apartment.config;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import java.time.Duration;
 import java.util.HashMap;
 import java.util.Map;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.common.TopicPartition;
 import org.apache.kafka.common.serialization.StringDeserializer;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
@@ -11,13 +14,43 @@ import org.springframework.kafka.annotation.EnableKafka;
 import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
 import org.springframework.kafka.core.ConsumerFactory;
 import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
+import org.springframework.kafka.listener.DefaultErrorHandler;
+import org.springframework.util.backoff.BackOff;
+import org.springframework.util.backoff.ExponentialBackOff;
+import org.springframework.util.backoff.FixedBackOff;
 
 @EnableKafka
 @Configuration
 public class KafkaConsumerConfig {
+  private static final String DEAD_LETTER_SUFFIX = ".DLT";
+
   @Value("${kafka-bootstrap-servers}")
   private String bootstrapServers;
 
+  @Value("${kafka-consumer.retry-interval}")
+  private Duration retryInterval;
+
+  @Value("${kafka-consumer.max-retries}")
+  private long maxRetries;
+
+  @Value("${kafka-consumer.concurrency}")
+  private int concurrency;
+
+  @Value("${kafka-consumer.max-poll-records}")
+  private int maxPollRecords;
+
+  @Value("${image-deletion.redelivery-interval}")
+  private Duration redeliveryInterval;
+
+  @Value("${image-deletion.redelivery-max-interval}")
+  private Duration redeliveryMaxInterval;
+
+  @Value("${image-deletion.redelivery-max-elapsed}")
+  private Duration redeliveryMaxElapsed;
+
   @Bean
   public ConsumerFactory<String, String> consumerFactory() {
     Map<String, Object> configProps = new HashMap<>();
@@ -25,8 +58,8 @@ public class KafkaConsumerConfig {
     configProps.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
     configProps.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
     configProps.put(ConsumerConfig.GROUP_ID_CONFIG, "clear_user_data");
-    configProps.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, "true");
-    configProps.put(ConsumerConfig.AUTO_COMMIT_INTERVAL_MS_CONFIG, "1000");
+    configProps.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, "false");
+    configProps.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, maxPollRecords);
     configProps.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "latest");
 
     return new DefaultKafkaConsumerFactory<>(configProps);
@@ -37,6 +70,53 @@ public class KafkaConsumerConfig {
     ConcurrentKafkaListenerContainerFactory<String, String> factory =
         new ConcurrentKafkaListenerContainerFactory<>();
     factory.setConsumerFactory(consumerFactory());
+    factory.setCommonErrorHandler(errorHandler());
     return factory;
   }
+
+  // Delivers a whole poll to the listener, which acknowledges it once the batch is processed. A
+  // record the listener reports as failed is retried, then published to the dead-letter topic.
+  @Bean
+  public ConcurrentKafkaListenerContainerFactory<String, String>
+      batchKafkaListenerContainerFactory(KafkaTemplate<String, String> kafkaTemplate) {
+    ConcurrentKafkaListenerContainerFactory<String, String> factory =
+        new ConcurrentKafkaListenerContainerFactory<>();
+    factory.setConsumerFactory(consumerFactory());
+    factory.setBatchListener(true);
+    factory.setConcurrency(concurrency);
+    factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL);
+    factory.setCommonErrorHandler(deadLetterErrorHandler(kafkaTemplate,
+        new FixedBackOff(retryInterval.toMillis(), maxRetries)));
+    return factory;
+  }
+
+  // Images still in storage are redelivered with growing delays, kept below the poll interval,
+  // until the elapsed limit and then dead-lettered. Unreadable messages are dead-lettered at once.
+  @Bean
+  public ConcurrentKafkaListenerContainerFactory<String, String>
+      imageDeletionRetryContainerFactory(KafkaTemplate<String, String> kafkaTemplate) {
+    ExponentialBackOff backOff = new ExponentialBackOff(redeliveryInterval.toMillis(), 2);
+    backOff.setMaxInterval(redeliveryMaxInterval.toMillis());
+    backOff.setMaxElapsedTime(redeliveryMaxElapsed.toMillis());
+    DefaultErrorHandler errorHandler = deadLetterErrorHandler(kafkaTemplate, backOff);
+    errorHandler.addNotRetryableExceptions(JsonProcessingException.class);
+
+    ConcurrentKafkaListenerContainerFactory<String, String> factory =
+        new ConcurrentKafkaListenerContainerFactory<>();
+    factory.setConsumerFactory(consumerFactory());
+    factory.setCommonErrorHandler(errorHandler);
+    return factory;
+  }
+
+  private DefaultErrorHandler errorHandler() {
+    return new DefaultErrorHandler(new FixedBackOff(retryInterval.toMillis(), maxRetries));
+  }
+
+  // Dead-letter topics may have fewer partitions than their source, so Kafka picks the partition
+  private DefaultErrorHandler deadLetterErrorHandler(KafkaTemplate<String, String> kafkaTemplate,
+                                                     BackOff backOff) {
+    DeadLetterPublishingRecoverer recoverer = new DeadLetterPublishingRecoverer(kafkaTemplate,
+        (record, exception) -> new TopicPartition(record.topic() + DEAD_LETTER_SUFFIX, -1));
+    return new DefaultErrorHandler(recoverer, backOff);
+  }
 }
@@ -1,12 +1,16 @@
 package org.apartment.config;
 
 import java.net.URI;
+import java.time.Duration;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
 import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.http.nio.netty.NettyNioAsyncHttpClient;
 import software.amazon.awssdk.regions.Region;
-import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
+import software.amazon.awssdk.services.s3.multipart.MultipartConfiguration;
 
 @Configuration
 public class S3Config {
@@ -23,12 +27,37 @@ public class S3Config {
   @Value("${aws.s3.endpoint}")
   private String endpoint;
 
+  @Value("${aws.s3.part-size}")
+  private DataSize partSize;
+
+  @Value("${aws.s3.max-concurrency}")
+  private int maxConcurrency;
+
+  @Value("${aws.s3.max-pending-connection-acquires}")
+  private int maxPendingConnectionAcquires;
+
+  @Value("${aws.s3.connection-acquisition-timeout}")
+  private Duration connectionAcquisitionTimeout;
+
+  @Value("${aws.s3.connection-max-idle-time}")
+  private Duration connectionMaxIdleTime;
+
   @Bean
-  public S3Client s3Client() {
+  public S3AsyncClient s3AsyncClient() {
     AwsBasicCredentials credentials = AwsBasicCredentials.create(accessKey, secretKey);
 
-    return S3Client.builder().region(Region.of(region)).credentialsProvider(() -> credentials)
-        .endpointOverride(URI.create(endpoint))
-        .serviceConfiguration(s3Config -> s3Config.pathStyleAccessEnabled(true)).build();
+    return S3AsyncClient.builder().region(Region.of(region)).credentialsProvider(() -> credentials)
+        .endpointOverride(URI.create(endpoint)).forcePathStyle(true)
+        .httpClientBuilder(NettyNioAsyncHttpClient.builder()
+            .maxConcurrency(maxConcurrency)
+            .maxPendingConnectionAcquires(maxPendingConnectionAcquires)
+            .connectionAcquisitionTimeout(connectionAcquisitionTimeout)
+            .connectionMaxIdleTime(connectionMaxIdleTime))
+        // Objects above one part are split and their parts sent in parallel over the pool
+        .multipartEnabled(true)
+        .multipartConfiguration(MultipartConfiguration.builder()
+            .thresholdInBytes(partSize.toBytes())
+            .minimumPartSizeInBytes(partSize.toBytes()).build())
+        .build();
   }
 }
@@ -0,0 +1,39 @@
+package org.apartment.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.AllArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+@Component
+@AllArgsConstructor
+public class SearchIndexingMetrics implements MeterBinder {
+  public static final String PENDING_QUERY =
+      "SELECT COUNT(*) FROM hsearch_outbox_event WHERE status = 'PENDING'";
+  private static final String LAG_QUERY = "SELECT COALESCE(EXTRACT(EPOCH FROM "
+      + "GREATEST(now() - MIN(process_after), INTERVAL '0')), 0) "
+      + "FROM hsearch_outbox_event WHERE status = 'PENDING'";
+
+  private final JdbcTemplate jdbcTemplate;
+
+  @Override
+  public void bindTo(MeterRegistry registry) {
+    Gauge.builder("search.indexing.lag", this, SearchIndexingMetrics::lagSeconds)
+        .description("Age of the oldest index change not yet applied to the search index")
+        .baseUnit("seconds").register(registry);
+    Gauge.builder("search.indexing.pending", this, SearchIndexingMetrics::pendingEvents)
+        .description("Index changes waiting in the outbox").register(registry);
+  }
+
+  private double lagSeconds() {
+    Double lag = jdbcTemplate.queryForObject(LAG_QUERY, Double.class);
+    return lag != null ? lag : 0;
+  }
+
+  private double pendingEvents() {
+    Long pending = jdbcTemplate.queryForObject(PENDING_QUERY, Long.class);
+    return pending != null ? pending : 0;
+  }
+}
@@ -0,0 +1,29 @@
+package org.apartment.config;
+
+import lombok.AllArgsConstructor;
+import org.apartment.dto.ReindexStatus;
+import org.apartment.service.SearchReindexService;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.stereotype.Component;
+
+// Exposed on the management endpoints only, it is not routed through the gateway
+@Component
+@Endpoint(id = "searchreindex")
+@AllArgsConstructor
+public class SearchReindexEndpoint {
+  private final SearchReindexService searchReindexService;
+
+  @ReadOperation
+  public ReindexStatus status() {
+    return searchReindexService.status();
+  }
+
+  @WriteOperation
+  public WebEndpointResponse<ReindexStatus> start() {
+    int status = searchReindexService.start() ? 202 : 409;
+    return new WebEndpointResponse<>(searchReindexService.status(), status);
+  }
+}
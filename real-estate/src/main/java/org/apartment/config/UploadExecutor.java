@@ -0,0 +1,130 @@
+package org.apartment.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.extern.slf4j.Slf4j;
+import org.apartment.exception.UploadRejectedException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+@Component
+@Slf4j
+public class UploadExecutor implements AutoCloseable {
+  private final ExecutorService executorService;
+  private final Semaphore admitted;
+  private final Semaphore running;
+  private final AtomicInteger active = new AtomicInteger();
+  private final int capacity;
+  private final Counter rejected;
+  private final Timer succeeded;
+  private final Timer failed;
+
+  @Autowired
+  public UploadExecutor(@Value("${upload-executor.concurrency}") int concurrency,
+                        @Value("${upload-executor.queue-capacity}") int queueCapacity,
+                        @Value("${upload-executor.virtual-threads}") boolean virtualThreads,
+                        MeterRegistry registry) {
+    this.executorService = virtualThreads
+        ? Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("s3-upload-", 0).factory())
+        : Executors.newFixedThreadPool(concurrency,
+            Thread.ofPlatform().name("s3-upload-", 0).daemon().factory());
+    this.capacity = concurrency + queueCapacity;
+    this.admitted = new Semaphore(capacity);
+    this.running = new Semaphore(concurrency);
+
+    Gauge.builder("upload.executor.queued", this, UploadExecutor::queued)
+        .description("Uploads accepted but waiting for a free upload slot").register(registry);
+    Gauge.builder("upload.executor.active", active, AtomicInteger::get)
+        .description("Uploads currently streaming to S3").register(registry);
+    this.rejected = Counter.builder("upload.executor.rejected")
+        .description("Uploads rejected because the upload queue was full").register(registry);
+    this.succeeded = Timer.builder("upload.duration").tag("outcome", "success")
+        .description("Time spent streaming a single file to S3").register(registry);
+    this.failed = Timer.builder("upload.duration").tag("outcome", "failure")
+        .description("Time spent streaming a single file to S3").register(registry);
+
+    log.info("Upload executor started: concurrency={}, queueCapacity={}, virtualThreads={}",
+        concurrency, queueCapacity, virtualThreads);
+  }
+
+  public <T> CompletableFuture<T> submit(Callable<T> upload) {
+    if (!admitted.tryAcquire()) {
+      rejected.increment();
+      throw new UploadRejectedException("Too many uploads in progress, try again later");
+    }
+
+    // Cancelled tasks may never run, so the slot is released when the task completes either way
+    CompletableFuture<T> result = new CompletableFuture<>();
+    FutureTask<T> task = new FutureTask<>(() -> run(upload)) {
+      @Override
+      protected void done() {
+        admitted.release();
+        try {
+          result.complete(get());
+        } catch (ExecutionException e) {
+          result.completeExceptionally(e.getCause());
+        } catch (CancellationException | InterruptedException e) {
+          result.cancel(false);
+        }
+      }
+    };
+    result.whenComplete((uploaded, e) -> {
+      if (result.isCancelled()) {
+        task.cancel(true);
+      }
+    });
+
+    try {
+      executorService.execute(task);
+    } catch (RejectedExecutionException e) {
+      admitted.release();
+      rejected.increment();
+      throw new UploadRejectedException("Upload executor is shutting down");
+    }
+    return result;
+  }
+
+  private <T> T run(Callable<T> upload) throws Exception {
+    running.acquire();
+    active.incrementAndGet();
+    long start = System.nanoTime();
+    try {
+      T result = upload.call();
+      succeeded.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+      return result;
+    } catch (Exception e) {
+      failed.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+      throw e;
+    } finally {
+      active.decrementAndGet();
+      running.release();
+    }
+  }
+
+  private double queued() {
+    return Math.max(0, capacity - admitted.availablePermits() - active.get());
+  }
+
+  @Override
+  public void close() throws InterruptedException {
+    executorService.shutdown();
+    if (!executorService.awaitTermination(30, TimeUnit.SECONDS)) {
+      log.warn("Upload executor did not finish in-flight uploads, interrupting them");
+      executorService.shutdownNow();
+    }
+  }
+}
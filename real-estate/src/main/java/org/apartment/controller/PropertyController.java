@@ -1,12 +1,20 @@
 package org.apartment.controller;
 
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
 import lombok.AllArgsConstructor;
 import org.apartment.dto.PropertyDto;
+import org.apartment.dto.PropertyFeedDto;
 import org.apartment.dto.PropertyListDto;
 import org.apartment.entity.Property;
+import org.apartment.exception.InvalidPageSizeException;
 import org.apartment.mapper.PropertyMapper;
+import org.apartment.service.PropertyImportService;
 import org.apartment.service.PropertyService;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
@@ -21,17 +29,27 @@ import org.springframework.web.multipart.MultipartFile;
 @RequestMapping("/api/v1/property")
 @AllArgsConstructor
 public class PropertyController {
+  private static final int MAX_FEED_PAGE_SIZE = 100;
+
   private PropertyService propertyService;
+  private PropertyImportService propertyImportService;
 
   @PostMapping
-  public ResponseEntity<Property> createProperty(
+  public CompletableFuture<ResponseEntity<Property>> createProperty(
       @RequestPart("data") @Valid PropertyDto propertyDto,
       @RequestParam("image") MultipartFile[] imageFiles,
       @RequestHeader("X-User-Id") String userId) {
     propertyDto.setPostedBy(userId);
     Property property = PropertyMapper.INSTANCE.toEntity(propertyDto);
-    Property createdProperty = propertyService.createProperty(property, imageFiles);
-    return ResponseEntity.ok(createdProperty);
+    return propertyService.createProperty(property, imageFiles).thenApply(ResponseEntity::ok);
+  }
+
+  @PostMapping(value = "/import", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+  public void importProperties(HttpServletRequest request, HttpServletResponse response,
+                               @RequestHeader("X-User-Id") String userId) throws IOException {
+    response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+    propertyImportService.importProperties(request.getInputStream(), response.getOutputStream(),
+        userId);
   }
 
   @GetMapping
@@ -40,4 +58,17 @@ public class PropertyController {
                                        int size) {
     return propertyService.getProperties(page, size);
   }
+
+  @GetMapping(params = "cursor")
+  public PropertyFeedDto getPropertiesAfter(@RequestParam("cursor") String cursor,
+                                            @RequestParam(value = "size", defaultValue = "10")
+                                            int size,
+                                            @RequestParam(value = "withCount",
+                                                defaultValue = "false") boolean withCount) {
+    if (size < 1 || size > MAX_FEED_PAGE_SIZE) {
+      throw new InvalidPageSizeException(
+          "Size must be between 1 and " + MAX_FEED_PAGE_SIZE + ", was " + size);
+    }
+    return propertyService.getPropertiesAfter(cursor, size, withCount);
+  }
 }
@@ -1,12 +1,8 @@
 package org.apartment.controller;
 
-import java.util.List;
-import java.util.stream.Collectors;
 import lombok.AllArgsConstructor;
-import org.apartment.dto.PropertyDto;
 import org.apartment.dto.PropertySearchDto;
-import org.apartment.entity.Property;
-import org.apartment.mapper.PropertyMapper;
+import org.apartment.dto.PropertySearchResultDto;
 import org.apartment.service.PropertySearchService;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -23,14 +19,10 @@ public class PropertySearchController {
   private final PropertySearchService propertySearchService;
 
   @GetMapping
-  public ResponseEntity<List<PropertyDto>> searchProperties(
+  public ResponseEntity<PropertySearchResultDto> searchProperties(
       @RequestBody PropertySearchDto propertySearchDto,
       @RequestParam(value = "page", defaultValue = "0") int page,
       @RequestParam(value = "size", defaultValue = "10") int size) {
-    List<Property> properties =
-        propertySearchService.searchProperties(propertySearchDto, page, size);
-    List<PropertyDto> propertyDtoList =
-        properties.stream().map(PropertyMapper.INSTANCE::toDto).collect(Collectors.toList());
-    return ResponseEntity.ok(propertyDtoList);
+    return ResponseEntity.ok(propertySearchService.searchProperties(propertySearchDto, page, size));
   }
 }
@@ -4,6 +4,9 @@ import lombok.extern.slf4j.Slf4j;
 import org.apartment.dto.ResponseDto;
 import org.apartment.exception.FileValidationException;
 import org.apartment.exception.GlobalExceptionHandler;
+import org.apartment.exception.InvalidCursorException;
+import org.apartment.exception.InvalidPageSizeException;
+import org.apartment.exception.UploadRejectedException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
@@ -19,4 +22,28 @@ public class RealEstateExceptionHandler extends GlobalExceptionHandler {
     log.info("File validation failed: {}", e.getMessage(), e);
     return new ResponseEntity<>(response, HttpStatus.BAD_REQUEST);
   }
+
+  @ExceptionHandler(InvalidCursorException.class)
+  public ResponseEntity<ResponseDto<String>> handleInvalidCursorException(
+      InvalidCursorException e) {
+    ResponseDto<String> response = new ResponseDto<>("Invalid cursor: " + e.getMessage());
+    log.info("Invalid cursor: {}", e.getMessage(), e);
+    return new ResponseEntity<>(response, HttpStatus.BAD_REQUEST);
+  }
+
+  @ExceptionHandler(InvalidPageSizeException.class)
+  public ResponseEntity<ResponseDto<String>> handleInvalidPageSizeException(
+      InvalidPageSizeException e) {
+    ResponseDto<String> response = new ResponseDto<>("Invalid page size: " + e.getMessage());
+    log.info("Invalid page size: {}", e.getMessage(), e);
+    return new ResponseEntity<>(response, HttpStatus.BAD_REQUEST);
+  }
+
+  @ExceptionHandler(UploadRejectedException.class)
+  public ResponseEntity<ResponseDto<String>> handleUploadRejectedException(
+      UploadRejectedException e) {
+    ResponseDto<String> response = new ResponseDto<>("Upload rejected: " + e.getMessage());
+    log.warn("Upload rejected: {}", e.getMessage());
+    return new ResponseEntity<>(response, HttpStatus.SERVICE_UNAVAILABLE);
+  }
 }
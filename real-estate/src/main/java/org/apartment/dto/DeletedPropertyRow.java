@@ -0,0 +1,9 @@
+package org.apartment.dto;
+
+import java.util.UUID;
+
+public interface DeletedPropertyRow {
+  UUID getPropertyId();
+
+  String getFileUrl();
+}
@@ -0,0 +1,32 @@
+package org.apartment.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.UUID;
+import org.apartment.exception.InvalidCursorException;
+
+public record PropertyCursor(LocalDate createdAt, UUID id) {
+  private static final String SEPARATOR = "|";
+
+  public String encode() {
+    String raw = createdAt + SEPARATOR + id;
+    return Base64.getUrlEncoder().withoutPadding()
+        .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+  }
+
+  public static PropertyCursor decode(String cursor) {
+    try {
+      String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+      int separatorIndex = raw.indexOf(SEPARATOR);
+      if (separatorIndex <= 0 || separatorIndex == raw.length() - 1) {
+        throw new InvalidCursorException("Malformed cursor");
+      }
+      return new PropertyCursor(LocalDate.parse(raw.substring(0, separatorIndex)),
+          UUID.fromString(raw.substring(separatorIndex + 1)));
+    } catch (IllegalArgumentException | DateTimeParseException e) {
+      throw new InvalidCursorException("Malformed cursor");
+    }
+  }
+}
@@ -0,0 +1,19 @@
+package org.apartment.dto;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PropertyFeedDto {
+  private List<PropertyDto> content;
+  private String nextCursor;
+  private boolean last;
+  private int numberOfElements;
+  private Long totalElements;
+}
@@ -0,0 +1,17 @@
+package org.apartment.dto;
+
+import java.util.UUID;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PropertyImportResultDto {
+  private long line;
+  private UUID id;
+  private String error;
+}
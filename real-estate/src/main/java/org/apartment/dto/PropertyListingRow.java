@@ -0,0 +1,16 @@
+package org.apartment.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.UUID;
+import org.apartment.entity.PropertyDealType;
+import org.apartment.entity.PropertyStatus;
+import org.apartment.entity.PropertyType;
+
+public record PropertyListingRow(UUID id, String title, String description, PropertyType type,
+                                 PropertyDealType propertyDealType, BigDecimal price,
+                                 String city, PropertyStatus status, String postedBy,
+                                 LocalDate createdAt, LocalDate updatedAt, UUID imageId,
+                                 String imageUrl, Map<Integer, String> imageVariants) {
+}
@@ -54,4 +54,11 @@ public class PropertySearchDto {
   public LocalDate getEndDate() {
     return endDate != null ? endDate : LocalDate.MAX;
   }
+
+  public PropertySearchDto normalized() {
+    return PropertySearchDto.builder().keyword(getKeyword()).city(getCity()).status(getStatus())
+        .propertyDealType(propertyDealType).minPrice(getMinPrice().stripTrailingZeros())
+        .maxPrice(getMaxPrice().stripTrailingZeros()).startDate(getStartDate())
+        .endDate(getEndDate()).propertyType(propertyType).build();
+  }
 }
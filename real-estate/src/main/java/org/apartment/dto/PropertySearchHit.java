@@ -0,0 +1,31 @@
+package org.apartment.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import org.apartment.entity.ImageVariantsProjectionBinder;
+import org.apartment.entity.PropertyDealType;
+import org.apartment.entity.PropertyStatus;
+import org.apartment.entity.PropertyType;
+import org.hibernate.search.mapper.pojo.mapping.definition.annotation.ProjectionBinding;
+import org.hibernate.search.mapper.pojo.mapping.definition.annotation.ProjectionConstructor;
+import org.hibernate.search.mapper.pojo.search.definition.mapping.annotation.ProjectionBinderRef;
+
+/**
+ * Search hit projected from the index, each component is read from the index field of the same
+ * name.
+ */
+@ProjectionConstructor
+public record PropertySearchHit(String title, String description, PropertyType type,
+                                PropertyDealType propertyDealType, BigDecimal price, String city,
+                                PropertyStatus status, String postedBy, List<Image> images,
+                                LocalDate createdAt, LocalDate updatedAt) {
+  @ProjectionConstructor
+  public record Image(UUID id, String imageUrl,
+                      @ProjectionBinding(binder = @ProjectionBinderRef(
+                          type = ImageVariantsProjectionBinder.class))
+                      Map<Integer, String> variants) {
+  }
+}
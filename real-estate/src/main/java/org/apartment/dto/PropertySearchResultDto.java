@@ -0,0 +1,22 @@
+package org.apartment.dto;
+
+import java.util.List;
+import java.util.Map;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PropertySearchResultDto {
+  private List<PropertyDto> content;
+  private long totalElements;
+  private int totalPages;
+  private boolean last;
+  private boolean first;
+  private int numberOfElements;
+  private Map<String, Map<String, Long>> facets;
+}
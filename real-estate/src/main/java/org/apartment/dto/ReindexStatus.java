@@ -0,0 +1,7 @@
+package org.apartment.dto;
+
+import java.time.Instant;
+
+public record ReindexStatus(String state, Instant startedAt, long totalDocuments,
+                            long indexedDocuments, double documentsPerSecond, Long etaSeconds) {
+}
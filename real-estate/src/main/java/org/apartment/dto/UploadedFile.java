@@ -0,0 +1,4 @@
+package org.apartment.dto;
+
+public record UploadedFile(String url, String sha256, long size) {
+}
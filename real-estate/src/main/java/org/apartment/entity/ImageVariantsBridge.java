@@ -0,0 +1,48 @@
+package org.apartment.entity;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.Map;
+import java.util.TreeMap;
+import org.hibernate.search.mapper.pojo.bridge.ValueBridge;
+import org.hibernate.search.mapper.pojo.bridge.runtime.ValueBridgeFromIndexedValueContext;
+import org.hibernate.search.mapper.pojo.bridge.runtime.ValueBridgeToIndexedValueContext;
+
+/**
+ * Stores image variants as a single JSON keyword so search results can project them back without
+ * loading the images from the database. Hibernate Search only infers raw value types, hence the raw
+ * {@link Map}.
+ */
+@SuppressWarnings("rawtypes")
+public class ImageVariantsBridge implements ValueBridge<Map, String> {
+  private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+  private static final TypeReference<TreeMap<Integer, String>> VARIANTS_TYPE =
+      new TypeReference<>() {
+      };
+
+  @Override
+  public String toIndexedValue(Map variants,
+                               ValueBridgeToIndexedValueContext context) {
+    if (variants == null || variants.isEmpty()) {
+      return null;
+    }
+    try {
+      return OBJECT_MAPPER.writeValueAsString(variants);
+    } catch (JsonProcessingException e) {
+      throw new IllegalStateException("Failed to index image variants", e);
+    }
+  }
+
+  @Override
+  public Map fromIndexedValue(String value, ValueBridgeFromIndexedValueContext context) {
+    if (value == null) {
+      return null;
+    }
+    try {
+      return OBJECT_MAPPER.readValue(value, VARIANTS_TYPE);
+    } catch (JsonProcessingException e) {
+      throw new IllegalStateException("Failed to read indexed image variants", e);
+    }
+  }
+}
@@ -0,0 +1,18 @@
+package org.apartment.entity;
+
+import java.util.Map;
+import org.hibernate.search.mapper.pojo.search.definition.binding.ProjectionBinder;
+import org.hibernate.search.mapper.pojo.search.definition.binding.ProjectionBindingContext;
+
+/**
+ * Projects the variants {@link ImageVariantsBridge} indexes as a single JSON keyword. An inferred
+ * field projection would take the {@link Map} constructor parameter for a multi-valued container.
+ */
+@SuppressWarnings("rawtypes")
+public class ImageVariantsProjectionBinder implements ProjectionBinder {
+  @Override
+  public void bind(ProjectionBindingContext context) {
+    context.definition(Map.class, (factory, definitionContext) ->
+        factory.field("variants", Map.class).toProjection());
+  }
+}
@@ -17,14 +17,21 @@ import jakarta.persistence.Table;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.UUID;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.hibernate.annotations.UuidGenerator;
+import org.hibernate.search.engine.backend.types.Aggregable;
+import org.hibernate.search.engine.backend.types.ObjectStructure;
+import org.hibernate.search.engine.backend.types.Projectable;
 import org.hibernate.search.mapper.pojo.mapping.definition.annotation.FullTextField;
 import org.hibernate.search.mapper.pojo.mapping.definition.annotation.GenericField;
 import org.hibernate.search.mapper.pojo.mapping.definition.annotation.Indexed;
+import org.hibernate.search.mapper.pojo.mapping.definition.annotation.IndexedEmbedded;
+import org.hibernate.search.mapper.pojo.mapping.definition.annotation.KeywordField;
+import org.hibernate.search.mapper.pojo.mapping.definition.annotation.ScaledNumberField;
 
 @Data
 @NoArgsConstructor
@@ -36,52 +43,58 @@ import org.hibernate.search.mapper.pojo.mapping.definition.annotation.Indexed;
 @NamedEntityGraph(name = "property_entity-graph", attributeNodes = @NamedAttributeNode("images"))
 public class Property {
   @Id
-  @UuidGenerator
-  private String id;
+  @UuidGenerator(algorithm = UuidV7Generator.class)
+  private UUID id;
 
   @Column(nullable = false)
-  @FullTextField
+  @FullTextField(projectable = Projectable.YES)
   private String title;
 
   @Column(length = 2000)
-  @FullTextField
+  @FullTextField(projectable = Projectable.YES)
   private String description;
 
   @Enumerated(EnumType.STRING)
   @Column(nullable = false)
-  @GenericField
+  @GenericField(projectable = Projectable.YES, aggregable = Aggregable.YES)
   private PropertyType type;
 
   @Enumerated(EnumType.STRING)
   @Column(nullable = false)
-  @GenericField
+  @GenericField(projectable = Projectable.YES, aggregable = Aggregable.YES)
   private PropertyDealType propertyDealType;
 
   @Column(nullable = false)
-  @GenericField
+  @ScaledNumberField(decimalScale = 2, projectable = Projectable.YES,
+      aggregable = Aggregable.YES)
   private BigDecimal price;
 
   @Column(nullable = false)
-  @FullTextField
+  @FullTextField(projectable = Projectable.YES)
+  @KeywordField(name = "city_keyword", aggregable = Aggregable.YES)
   private String city;
 
   @Enumerated(EnumType.STRING)
   @Column(nullable = false)
-  @GenericField
+  @GenericField(projectable = Projectable.YES, aggregable = Aggregable.YES)
   private PropertyStatus status;
 
   @Column(name = "posted_by", nullable = false)
+  @KeywordField(projectable = Projectable.YES)
   private String postedBy;
 
   @Column(name = "created_at", updatable = false)
-  @GenericField
+  @GenericField(projectable = Projectable.YES)
   private LocalDate createdAt;
 
   @Column(name = "updated_at")
+  @GenericField(projectable = Projectable.YES)
   private LocalDate updatedAt;
 
   @JsonManagedReference
   @OneToMany(mappedBy = "property", cascade = CascadeType.ALL, fetch = FetchType.EAGER)
+  @IndexedEmbedded(includePaths = {"id", "imageUrl", "variants"},
+      structure = ObjectStructure.NESTED)
   private List<PropertyImage> images;
 
   @PrePersist
@@ -8,11 +8,21 @@ import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
+import java.util.Map;
+import java.util.UUID;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.JdbcTypeCode;
 import org.hibernate.annotations.UuidGenerator;
+import org.hibernate.search.engine.backend.types.Projectable;
+import org.hibernate.search.engine.backend.types.Searchable;
+import org.hibernate.search.mapper.pojo.bridge.mapping.annotation.ValueBridgeRef;
+import org.hibernate.search.mapper.pojo.extractor.mapping.annotation.ContainerExtract;
+import org.hibernate.search.mapper.pojo.extractor.mapping.annotation.ContainerExtraction;
+import org.hibernate.search.mapper.pojo.mapping.definition.annotation.KeywordField;
+import org.hibernate.type.SqlTypes;
 
 @Entity
 @Table(name = "property_images")
@@ -22,8 +32,9 @@ import org.hibernate.annotations.UuidGenerator;
 @Builder
 public class PropertyImage {
   @Id
-  @UuidGenerator
-  private String id;
+  @UuidGenerator(algorithm = UuidV7Generator.class)
+  @KeywordField(projectable = Projectable.YES, searchable = Searchable.NO)
+  private UUID id;
 
   @ManyToOne(fetch = FetchType.LAZY)
   @JoinColumn(name = "property_id", nullable = false)
@@ -31,5 +42,18 @@ public class PropertyImage {
   private Property property;
 
   @Column(nullable = false)
+  @KeywordField(projectable = Projectable.YES, searchable = Searchable.NO)
   private String imageUrl;
+
+  // Resized copies of the image keyed by width, filled in after upload by ImageVariantService
+  @JdbcTypeCode(SqlTypes.JSON)
+  @Column(name = "variants")
+  @KeywordField(projectable = Projectable.YES, searchable = Searchable.NO,
+      valueBridge = @ValueBridgeRef(type = ImageVariantsBridge.class),
+      extraction = @ContainerExtraction(extract = ContainerExtract.NO))
+  private Map<Integer, String> variants;
+
+  // Set when the image cannot be rendered, so the variant sweep stops picking it up
+  @Column(name = "variants_failed", nullable = false)
+  private boolean variantsFailed;
 }
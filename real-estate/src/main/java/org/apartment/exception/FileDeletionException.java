@@ -0,0 +1,7 @@
+package org.apartment.exception;
+
+public class FileDeletionException extends RuntimeException {
+  public FileDeletionException(String message) {
+    super(message);
+  }
+}
@@ -0,0 +1,7 @@
+package org.apartment.exception;
+
+public class ImageDimensionsExceededException extends FileValidationException {
+  public ImageDimensionsExceededException(String message) {
+    super(message);
+  }
+}
@@ -0,0 +1,7 @@
+package org.apartment.exception;
+
+public class InvalidPageSizeException extends RuntimeException {
+  public InvalidPageSizeException(String message) {
+    super(message);
+  }
+}
@@ -0,0 +1,7 @@
+package org.apartment.exception;
+
+public class UploadRejectedException extends RuntimeException {
+  public UploadRejectedException(String message) {
+    super(message);
+  }
+}
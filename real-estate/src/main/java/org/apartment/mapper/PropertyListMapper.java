@@ -1,10 +1,16 @@
 package org.apartment.mapper;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.UUID;
 import java.util.stream.Collectors;
 import org.apartment.dto.PropertyDto;
 import org.apartment.dto.PropertyListDto;
+import org.apartment.dto.PropertyListingRow;
 import org.apartment.entity.Property;
+import org.apartment.entity.PropertyImage;
 import org.mapstruct.Mapper;
 import org.mapstruct.factory.Mappers;
 import org.springframework.data.domain.Page;
@@ -24,4 +30,22 @@ public interface PropertyListMapper {
         .totalPages(propertyPage.getTotalPages()).last(propertyPage.isLast())
         .first(propertyPage.isFirst()).numberOfElements(propertyPage.getNumberOfElements()).build();
   }
-}
\ No newline at end of file
+
+  default List<PropertyDto> toPropertyDtos(List<PropertyListingRow> rows) {
+    Map<UUID, PropertyDto> propertiesById = new LinkedHashMap<>();
+    for (PropertyListingRow row : rows) {
+      PropertyDto propertyDto = propertiesById.computeIfAbsent(row.id(),
+          id -> PropertyDto.builder().title(row.title()).description(row.description())
+              .type(row.type()).propertyDealType(row.propertyDealType()).price(row.price())
+              .city(row.city()).status(row.status()).postedBy(row.postedBy())
+              .createdAt(row.createdAt()).updatedAt(row.updatedAt()).images(new ArrayList<>())
+              .build());
+      if (row.imageId() != null) {
+        propertyDto.getImages()
+            .add(PropertyImage.builder().id(row.imageId()).imageUrl(row.imageUrl())
+                .variants(row.imageVariants()).build());
+      }
+    }
+    return new ArrayList<>(propertiesById.values());
+  }
+}
@@ -1,19 +1,46 @@
 package org.apartment.repository;
 
+import java.time.Instant;
 import java.util.List;
+import java.util.UUID;
 import org.apartment.entity.PropertyImage;
 import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 @Repository
-public interface PropertyImageRepository extends JpaRepository<PropertyImage, String> {
-  @Query("SELECT p.imageUrl FROM PropertyImage p WHERE p.property.postedBy = :userId")
-  List<String> findImageUrlsByUserId(@Param("userId") String userId);
+public interface PropertyImageRepository extends JpaRepository<PropertyImage, UUID> {
+  List<PropertyImage> findByImageUrl(String imageUrl);
 
-  @Modifying
-  @Query("DELETE FROM PropertyImage p WHERE p.property.postedBy = :userId")
-  void deleteByUserId(@Param("userId") String userId);
+  @Query("SELECT DISTINCT i.imageUrl FROM PropertyImage i WHERE i.variants IS NULL "
+      + "AND i.variantsFailed = false AND i.imageUrl LIKE CONCAT(:prefix, '%') "
+      + "AND i.imageUrl > :after "
+      + "ORDER BY i.imageUrl LIMIT :limit")
+  List<String> findImageUrlsWithoutVariants(@Param("prefix") String prefix,
+                                            @Param("after") String after,
+                                            @Param("limit") int limit);
+
+  // Takes or renews the lease an upload holds on its object until the referencing row is saved.
+  // Waits while a deletion holds the lease row.
+  @Query(value = "INSERT INTO image_leases (image_url, leased_at) VALUES (:imageUrl, now()) "
+      + "ON CONFLICT (image_url) DO UPDATE SET leased_at = now() RETURNING image_url",
+      nativeQuery = true)
+  String leaseImage(@Param("imageUrl") String imageUrl);
+
+  // Locks the lease row of each file's original (variant keys end in -w<width>) until the
+  // transaction ends and returns the files whose original is neither referenced nor leased since
+  // the cutoff. Uploads of the same content then wait until the objects are gone.
+  @Query(value = "WITH locked AS (INSERT INTO image_leases (image_url, leased_at) "
+      + "SELECT DISTINCT regexp_replace(u, '-w[0-9]+$', ''), CAST('-infinity' AS timestamptz) "
+      + "FROM unnest(CAST(:fileUrls AS text[])) u ORDER BY 1 "
+      + "ON CONFLICT (image_url) DO UPDATE SET leased_at = image_leases.leased_at "
+      + "RETURNING image_url, leased_at) "
+      + "SELECT u FROM unnest(CAST(:fileUrls AS text[])) u "
+      + "JOIN locked l ON l.image_url = regexp_replace(u, '-w[0-9]+$', '') "
+      + "WHERE l.leased_at < :cutoff "
+      + "AND NOT EXISTS (SELECT 1 FROM property_images i WHERE i.image_url = l.image_url)",
+      nativeQuery = true)
+  List<String> lockUnusedFiles(@Param("fileUrls") String[] fileUrls,
+                               @Param("cutoff") Instant cutoff);
 }
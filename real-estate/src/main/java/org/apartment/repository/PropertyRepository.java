@@ -1,13 +1,13 @@
 package org.apartment.repository;
 
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
-import java.util.Set;
+import java.util.UUID;
+import org.apartment.dto.DeletedPropertyRow;
+import org.apartment.dto.PropertyListingRow;
 import org.apartment.entity.Property;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
-import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.PagingAndSortingRepository;
 import org.springframework.data.repository.query.Param;
@@ -15,14 +15,43 @@ import org.springframework.stereotype.Repository;
 
 @Repository
 public interface PropertyRepository
-    extends JpaRepository<Property, String>, PagingAndSortingRepository<Property, String> {
-  @Modifying
-  @Query("DELETE FROM Property p WHERE p.postedBy = :userId")
-  void deleteByUserId(@Param("userId") String userId);
+    extends JpaRepository<Property, UUID>, PagingAndSortingRepository<Property, UUID> {
+  // Deletes the properties and their images in one statement. Returns a row per deleted property
+  // with each stored file (original and variants) no remaining property references, or a single
+  // row with a null URL when there is nothing to remove from storage.
+  @Query(value = "WITH deleted_properties AS ("
+      + "DELETE FROM property WHERE posted_by IN (:userIds) RETURNING id), "
+      + "deleted_images AS (DELETE FROM property_images "
+      + "WHERE property_id IN (SELECT id FROM deleted_properties) "
+      + "RETURNING property_id, image_url, variants) "
+      + "SELECT p.id AS \"propertyId\", f.url AS \"fileUrl\" FROM deleted_properties p "
+      + "LEFT JOIN (SELECT i.property_id, u.url FROM deleted_images i "
+      + "CROSS JOIN LATERAL (SELECT i.image_url UNION "
+      + "SELECT value FROM jsonb_each_text(i.variants)) u(url) "
+      + "WHERE NOT EXISTS (SELECT 1 FROM property_images r WHERE r.image_url = i.image_url "
+      + "AND r.property_id NOT IN (SELECT id FROM deleted_properties))) f "
+      + "ON f.property_id = p.id", nativeQuery = true)
+  List<DeletedPropertyRow> deleteByUserIds(@Param("userIds") Collection<String> userIds);
 
-  @EntityGraph(value = "property_entity-graph")
-  List<Property> findByIdIn(Set<String> ids);
+  @Query("SELECT p.id FROM Property p WHERE p.id IN :ids")
+  List<UUID> findExistingIds(@Param("ids") Collection<UUID> ids);
 
-  @Query("SELECT p.id FROM Property p")
-  Page<String> findAllIds(Pageable pageable);
+  @Query("SELECT new org.apartment.dto.PropertyListingRow(p.id, p.title, p.description, p.type, "
+      + "p.propertyDealType, p.price, p.city, p.status, p.postedBy, p.createdAt, p.updatedAt, "
+      + "i.id, i.imageUrl, i.variants) FROM Property p LEFT JOIN p.images i "
+      + "WHERE p.id IN (SELECT pp.id FROM Property pp ORDER BY pp.createdAt DESC, pp.id DESC "
+      + "LIMIT :limit OFFSET :offset) "
+      + "ORDER BY p.createdAt DESC, p.id DESC")
+  List<PropertyListingRow> findPageRows(@Param("limit") int limit, @Param("offset") long offset);
+
+  @Query("SELECT new org.apartment.dto.PropertyListingRow(p.id, p.title, p.description, p.type, "
+      + "p.propertyDealType, p.price, p.city, p.status, p.postedBy, p.createdAt, p.updatedAt, "
+      + "i.id, i.imageUrl, i.variants) FROM Property p LEFT JOIN p.images i "
+      + "WHERE p.id IN (SELECT pp.id FROM Property pp "
+      + "WHERE (pp.createdAt, pp.id) < (:createdAt, :id) "
+      + "ORDER BY pp.createdAt DESC, pp.id DESC LIMIT :limit) "
+      + "ORDER BY p.createdAt DESC, p.id DESC")
+  List<PropertyListingRow> findPageRowsAfter(@Param("createdAt") LocalDate createdAt,
+                                             @Param("id") UUID id,
+                                             @Param("limit") int limit);
 }
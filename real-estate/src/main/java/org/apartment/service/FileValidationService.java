@@ -1,13 +1,24 @@
 package org.apartment.service;
 
-import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
 import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Iterator;
 import java.util.Set;
+import javax.imageio.IIOException;
 import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.MemoryCacheImageInputStream;
 import org.apartment.exception.FileCountExceededException;
 import org.apartment.exception.FileReadException;
 import org.apartment.exception.FileSizeExceededException;
 import org.apartment.exception.FileValidationException;
+import org.apartment.exception.ImageDimensionsExceededException;
 import org.apartment.exception.InvalidFileExtensionException;
 import org.apartment.exception.InvalidFileNameException;
 import org.apartment.exception.InvalidImageFileException;
@@ -18,6 +29,18 @@ import org.springframework.web.multipart.MultipartFile;
 public class FileValidationService {
   private static final Set<String> ALLOWED_EXTENSIONS = Set.of("jpg", "jpeg");
   private static final int MAX_FILES = 3;
+  private static final long MAX_FILE_SIZE = 5 * 1024 * 1024; // 5 MB
+  private static final int MAX_IMAGE_DIMENSION = 10_000;
+  private static final long MAX_IMAGE_PIXELS = 40_000_000L;
+  private static final int MAX_HEADER_SIZE = 64 * 1024;
+  private static final byte[] JPEG_MAGIC = {(byte) 0xFF, (byte) 0xD8, (byte) 0xFF};
+  private static final int TEM_MARKER = 0x01;
+  private static final int RST0_MARKER = 0xD0;
+  private static final int EOI_MARKER = 0xD9;
+  private static final int SOS_MARKER = 0xDA;
+  private static final int APP0_MARKER = 0xE0;
+  private static final int APP15_MARKER = 0xEF;
+  private static final int COM_MARKER = 0xFE;
 
   void validateFiles(MultipartFile[] files) throws FileValidationException {
     if (files.length > MAX_FILES) {
@@ -26,16 +49,6 @@ public class FileValidationService {
 
     for (MultipartFile file : files) {
       String originalFileName = file.getOriginalFilename();
-      final long maxFileSize = 5 * 1024 * 1024; // 5 MB
-
-      try {
-        BufferedImage image = ImageIO.read(file.getInputStream());
-        if (image == null) {
-          throw new InvalidImageFileException("Invalid image file");
-        }
-      } catch (IOException e) {
-        throw new FileReadException("Error reading the image file");
-      }
 
       if (originalFileName == null || originalFileName.isEmpty()) {
         throw new InvalidFileNameException("File name should be valid");
@@ -47,9 +60,94 @@ public class FileValidationService {
         throw new InvalidFileExtensionException("Only JPG and JPEG formats are allowed");
       }
 
-      if (file.getSize() > maxFileSize) {
+      if (file.getSize() > MAX_FILE_SIZE) {
         throw new FileSizeExceededException("File size exceeds the maximum allowed size of 5 MB");
       }
     }
   }
+
+  // Walks the marker segments up to the first scan; the pixel data is never decoded. APPn and COM
+  // segments (EXIF, XMP, ICC profiles, thumbnails) are skipped by their length without being kept,
+  // only the segments the reader needs are copied, and only those count towards MAX_HEADER_SIZE.
+  // The stream is left after the scan header, the caller drains the rest of it.
+  void validateImageHeader(InputStream inputStream) throws FileValidationException {
+    try (ImageInputStream imageInputStream =
+             new MemoryCacheImageInputStream(new ByteArrayInputStream(readHeader(inputStream)))) {
+      Iterator<ImageReader> readers = ImageIO.getImageReadersByFormatName("jpeg");
+      if (!readers.hasNext()) {
+        throw new InvalidImageFileException("Invalid image file");
+      }
+
+      ImageReader reader = readers.next();
+      try {
+        reader.setInput(imageInputStream, true, true);
+        int width = reader.getWidth(0);
+        int height = reader.getHeight(0);
+        if (width > MAX_IMAGE_DIMENSION || height > MAX_IMAGE_DIMENSION
+            || (long) width * height > MAX_IMAGE_PIXELS) {
+          throw new ImageDimensionsExceededException(String.format(
+              "Image dimensions %dx%d exceed the maximum allowed size", width, height));
+        }
+      } finally {
+        reader.dispose();
+      }
+    } catch (IIOException | EOFException e) {
+      throw new InvalidImageFileException("Invalid image file");
+    } catch (IOException e) {
+      throw new FileReadException("Error reading the image file");
+    }
+  }
+
+  private static byte[] readHeader(InputStream inputStream) throws IOException {
+    DataInputStream dataInputStream = new DataInputStream(inputStream);
+    byte[] magic = dataInputStream.readNBytes(JPEG_MAGIC.length);
+    if (!Arrays.equals(magic, JPEG_MAGIC)) {
+      throw new InvalidImageFileException("Invalid image file");
+    }
+
+    ByteArrayOutputStream header = new ByteArrayOutputStream();
+    header.write(JPEG_MAGIC, 0, 2);
+    int marker = readMarker(dataInputStream);
+    while (true) {
+      if (marker == TEM_MARKER || (marker >= RST0_MARKER && marker <= EOI_MARKER)) {
+        throw new InvalidImageFileException("Invalid image file");
+      }
+      int length = dataInputStream.readUnsignedShort();
+      if (length < 2) {
+        throw new InvalidImageFileException("Invalid image file");
+      }
+
+      if ((marker >= APP0_MARKER && marker <= APP15_MARKER) || marker == COM_MARKER) {
+        dataInputStream.skipNBytes(length - 2);
+      } else {
+        if (header.size() + length + 2 > MAX_HEADER_SIZE) {
+          throw new InvalidImageFileException("Invalid image file");
+        }
+        header.write(0xFF);
+        header.write(marker);
+        header.write(length >> 8);
+        header.write(length);
+        byte[] segment = new byte[length - 2];
+        dataInputStream.readFully(segment);
+        header.write(segment);
+        if (marker == SOS_MARKER) {
+          return header.toByteArray();
+        }
+      }
+
+      if (dataInputStream.readUnsignedByte() != 0xFF) {
+        throw new InvalidImageFileException("Invalid image file");
+      }
+      marker = readMarker(dataInputStream);
+    }
+  }
+
+  // A marker may be preceded by any number of 0xFF fill bytes
+  private static int readMarker(DataInputStream dataInputStream) throws IOException {
+    int marker = dataInputStream.readUnsignedByte();
+    while (marker == 0xFF) {
+      marker = dataInputStream.readUnsignedByte();
+    }
+    return marker;
+  }
 }
@@ -0,0 +1,233 @@
+package org.apartment.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import lombok.extern.slf4j.Slf4j;
+import org.apartment.exception.FileDeletionException;
+import org.apartment.repository.PropertyImageRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
+import software.amazon.awssdk.services.s3.model.DeleteObjectsResponse;
+import software.amazon.awssdk.services.s3.model.ObjectIdentifier;
+import software.amazon.awssdk.services.s3.model.S3Error;
+
+@Service
+@Slf4j
+public class ImageDeletionService {
+  public static final String RETRY_TOPIC = "image_delete_retry";
+  // S3 rejects DeleteObjects requests with more keys than this
+  static final int MAX_BATCH_SIZE = 1000;
+
+  private final S3AsyncClient s3AsyncClient;
+  private final String bucketName;
+  private final KafkaTemplate<String, String> kafkaTemplate;
+  private final ObjectMapper objectMapper;
+  private final PropertyImageRepository propertyImageRepository;
+  private final TransactionTemplate transactionTemplate;
+  private final Duration uploadGrace;
+  private final int batchSize;
+  private final int concurrency;
+  private final int maxAttempts;
+  private final Duration retryBackoff;
+  private final Counter deleted;
+  private final Counter failed;
+  private final Timer batchDuration;
+
+  @Autowired
+  public ImageDeletionService(S3AsyncClient s3AsyncClient,
+                              @Value("${aws.s3.bucket-name}") String bucketName,
+                              KafkaTemplate<String, String> kafkaTemplate,
+                              ObjectMapper objectMapper,
+                              PropertyImageRepository propertyImageRepository,
+                              TransactionTemplate transactionTemplate,
+                              @Value("${image-deletion.upload-grace}") Duration uploadGrace,
+                              @Value("${image-deletion.batch-size}") int batchSize,
+                              @Value("${image-deletion.concurrency}") int concurrency,
+                              @Value("${image-deletion.max-attempts}") int maxAttempts,
+                              @Value("${image-deletion.retry-backoff}") Duration retryBackoff,
+                              MeterRegistry registry) {
+    this.s3AsyncClient = s3AsyncClient;
+    this.bucketName = bucketName;
+    this.kafkaTemplate = kafkaTemplate;
+    this.objectMapper = objectMapper;
+    this.propertyImageRepository = propertyImageRepository;
+    this.transactionTemplate = transactionTemplate;
+    this.uploadGrace = uploadGrace;
+    this.batchSize = Math.min(batchSize, MAX_BATCH_SIZE);
+    this.concurrency = concurrency;
+    this.maxAttempts = maxAttempts;
+    this.retryBackoff = retryBackoff;
+
+    this.deleted = Counter.builder("s3.objects.deleted")
+        .description("Objects deleted from S3").register(registry);
+    this.failed = Counter.builder("s3.objects.delete.failed")
+        .description("Objects that could not be deleted from S3 after all attempts")
+        .register(registry);
+    this.batchDuration = Timer.builder("s3.delete.batch.duration")
+        .description("Time spent on a single DeleteObjects request").register(registry);
+  }
+
+  /**
+   * Deletes the images and publishes those that still fail after all attempts to the retry topic.
+   */
+  public void deleteImages(Collection<String> imageUrls) {
+    List<String> failedUrls = deleteUnused(imageUrls);
+    if (failedUrls.isEmpty()) {
+      return;
+    }
+
+    log.warn("Failed to delete {} images, scheduling retry", failedUrls.size());
+    try {
+      kafkaTemplate.send(RETRY_TOPIC, objectMapper.writeValueAsString(failedUrls)).join();
+    } catch (JsonProcessingException | RuntimeException e) {
+      log.error("Failed to schedule retry, images left in storage: {}", failedUrls, e);
+    }
+  }
+
+  @KafkaListener(topics = RETRY_TOPIC, groupId = "image_delete_retry",
+      containerFactory = "imageDeletionRetryContainerFactory")
+  public void retryDeletion(String imageUrls) throws JsonProcessingException {
+    List<String> urls = objectMapper.readValue(imageUrls, new TypeReference<>() {
+    });
+    log.info("Retrying deletion of {} images", urls.size());
+
+    List<String> failedUrls = deleteUnused(urls);
+    if (!failedUrls.isEmpty()) {
+      throw new FileDeletionException("Failed to delete " + failedUrls.size() + " images");
+    }
+  }
+
+  // A new upload of the same content or a new reference may have claimed a file since it was
+  // found unused. The leases stay locked until its object is gone, so an upload that comes later
+  // finds it missing and writes it again.
+  private List<String> deleteUnused(Collection<String> imageUrls) {
+    if (imageUrls == null || imageUrls.isEmpty()) {
+      return List.of();
+    }
+    return transactionTemplate.execute(status -> {
+      List<String> unused = propertyImageRepository.lockUnusedFiles(
+          imageUrls.toArray(String[]::new), Instant.now().minus(uploadGrace));
+      if (unused.size() < imageUrls.size()) {
+        log.info("Keeping {} of {} files that are in use again",
+            imageUrls.size() - unused.size(), imageUrls.size());
+      }
+      return unused.isEmpty() ? List.<String>of() : deleteFiles(unused).join();
+    });
+  }
+
+  /**
+   * Deletes the images in batches of at most {@value #MAX_BATCH_SIZE} keys, running up to
+   * {@code concurrency} batches at a time. Keys S3 reports as failed are retried with exponential
+   * backoff.
+   *
+   * @return URLs that could not be deleted after all attempts
+   */
+  public CompletableFuture<List<String>> deleteFiles(Collection<String> imageUrls) {
+    if (imageUrls == null || imageUrls.isEmpty()) {
+      log.warn("No image URLs provided for deletion.");
+      return CompletableFuture.completedFuture(List.of());
+    }
+
+    List<String> urls = List.copyOf(imageUrls);
+    Queue<List<String>> batches = new ConcurrentLinkedQueue<>();
+    for (int from = 0; from < urls.size(); from += batchSize) {
+      batches.add(urls.subList(from, Math.min(from + batchSize, urls.size())));
+    }
+    log.info("Deleting {} images from S3 in {} batches.", urls.size(), batches.size());
+
+    long start = System.nanoTime();
+    Queue<String> failedUrls = new ConcurrentLinkedQueue<>();
+    List<CompletableFuture<Void>> workers = new ArrayList<>();
+    for (int i = 0; i < Math.min(concurrency, batches.size()); i++) {
+      workers.add(nextBatch(batches, failedUrls));
+    }
+
+    return CompletableFuture.allOf(workers.toArray(new CompletableFuture[0])).thenApply(done -> {
+      long elapsed = Math.max(1, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+      int deletedCount = urls.size() - failedUrls.size();
+      log.info("Deleted {} of {} images from S3 in {} ms ({} objects/s).", deletedCount,
+          urls.size(), elapsed, deletedCount * 1000L / elapsed);
+      return List.copyOf(failedUrls);
+    });
+  }
+
+  private CompletableFuture<Void> nextBatch(Queue<List<String>> batches,
+                                            Queue<String> failedUrls) {
+    List<String> batch = batches.poll();
+    if (batch == null) {
+      return CompletableFuture.completedFuture(null);
+    }
+    return deleteBatch(batch, 1).thenCompose(failedBatch -> {
+      failedUrls.addAll(failedBatch);
+      return nextBatch(batches, failedUrls);
+    });
+  }
+
+  private CompletableFuture<List<String>> deleteBatch(List<String> urls, int attempt) {
+    List<ObjectIdentifier> objects = urls.stream()
+        .map(url -> ObjectIdentifier.builder().key(extractKeyFromUrl(url)).build()).toList();
+
+    Timer.Sample sample = Timer.start();
+    return s3AsyncClient.deleteObjects(request -> request.bucket(bucketName)
+            .delete(delete -> delete.objects(objects).quiet(true)))
+        .handle((response, e) -> {
+          sample.stop(batchDuration);
+          List<String> failedBatch = e != null ? urls : failedUrls(urls, response);
+          deleted.increment(urls.size() - failedBatch.size());
+          if (e != null) {
+            log.warn("DeleteObjects request for {} keys failed (attempt {}/{})", urls.size(),
+                attempt, maxAttempts, e);
+          } else if (!failedBatch.isEmpty()) {
+            log.warn("S3 failed to delete {} of {} keys (attempt {}/{}): {}", failedBatch.size(),
+                urls.size(), attempt, maxAttempts, response.errors().getFirst());
+          }
+          return failedBatch;
+        })
+        .thenCompose(failedBatch -> {
+          if (failedBatch.isEmpty()) {
+            return CompletableFuture.completedFuture(failedBatch);
+          }
+          if (attempt >= maxAttempts) {
+            failed.increment(failedBatch.size());
+            return CompletableFuture.completedFuture(failedBatch);
+          }
+          long delay = retryBackoff.toMillis() << (attempt - 1);
+          return CompletableFuture.supplyAsync(() -> failedBatch,
+                  CompletableFuture.delayedExecutor(delay, TimeUnit.MILLISECONDS))
+              .thenCompose(retry -> deleteBatch(retry, attempt + 1));
+        });
+  }
+
+  private List<String> failedUrls(List<String> urls, DeleteObjectsResponse response) {
+    if (!response.hasErrors() || response.errors().isEmpty()) {
+      return List.of();
+    }
+    Set<String> failedKeys =
+        response.errors().stream().map(S3Error::key).collect(Collectors.toSet());
+    return urls.stream().filter(url -> failedKeys.contains(extractKeyFromUrl(url))).toList();
+  }
+
+  private String extractKeyFromUrl(String url) {
+    return url.substring(url.lastIndexOf("/") + 1);
+  }
+}
@@ -0,0 +1,345 @@
+package org.apartment.service;
+
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.metadata.IIOMetadataNode;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import lombok.extern.slf4j.Slf4j;
+import org.apartment.config.CacheConfig;
+import org.apartment.entity.PropertyImage;
+import org.apartment.repository.PropertyImageRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
+import software.amazon.awssdk.core.async.AsyncRequestBody;
+import software.amazon.awssdk.core.async.AsyncResponseTransformer;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
+import software.amazon.awssdk.services.s3.model.NoSuchKeyException;
+
+@Service
+@Slf4j
+public class ImageVariantService implements AutoCloseable {
+  private static final String JPEG_METADATA_FORMAT = "javax_imageio_jpeg_image_1.0";
+  private static final String APP1_MARKER = "225";
+  private static final byte[] EXIF_HEADER = {'E', 'x', 'i', 'f', 0, 0};
+  private static final int ORIENTATION_TAG = 0x0112;
+
+  private final S3AsyncClient s3AsyncClient;
+  private final String urlPrefix;
+  private final String bucketName;
+  private final PropertyImageRepository propertyImageRepository;
+  private final TransactionTemplate transactionTemplate;
+  private final CacheManager cacheManager;
+  private final List<Integer> widths;
+  private final float quality;
+  private final int sweepBatchSize;
+  private final ExecutorService executorService;
+  private final Set<String> queued = ConcurrentHashMap.newKeySet();
+
+  @Autowired
+  public ImageVariantService(S3AsyncClient s3AsyncClient,
+                             @Value("${aws.s3.endpoint}") String s3StorageEndpoint,
+                             @Value("${aws.s3.bucket-name}") String bucketName,
+                             PropertyImageRepository propertyImageRepository,
+                             TransactionTemplate transactionTemplate,
+                             CacheManager cacheManager,
+                             @Value("${image-variants.widths}") List<Integer> widths,
+                             @Value("${image-variants.quality}") float quality,
+                             @Value("${image-variants.concurrency}") int concurrency,
+                             @Value("${image-variants.sweep-batch-size}") int sweepBatchSize) {
+    this.s3AsyncClient = s3AsyncClient;
+    this.urlPrefix = s3StorageEndpoint + "/" + bucketName + "/";
+    this.bucketName = bucketName;
+    this.propertyImageRepository = propertyImageRepository;
+    this.transactionTemplate = transactionTemplate;
+    this.cacheManager = cacheManager;
+    this.widths = widths.stream().sorted().distinct().toList();
+    this.quality = quality;
+    this.sweepBatchSize = sweepBatchSize;
+    this.executorService = Executors.newFixedThreadPool(concurrency,
+        Thread.ofPlatform().name("image-variants-", 0).daemon().factory());
+  }
+
+  /**
+   * Queues variant generation for the images, skipping those already queued.
+   *
+   * @return completes once the images queued by this call are processed
+   */
+  public CompletableFuture<Void> generateVariants(Collection<String> imageUrls) {
+    return CompletableFuture.allOf(imageUrls.stream().distinct().filter(queued::add)
+        .map(imageUrl -> CompletableFuture.runAsync(() -> {
+          try {
+            generate(imageUrl);
+          } catch (Exception e) {
+            log.error("Failed to generate variants for image: {}", imageUrl, e);
+          } finally {
+            queued.remove(imageUrl);
+          }
+        }, executorService)).toArray(CompletableFuture[]::new));
+  }
+
+  @Scheduled(initialDelayString = "${image-variants.sweep-interval}",
+      fixedDelayString = "${image-variants.sweep-interval}")
+  public void scheduledSweep() {
+    try {
+      sweepMissingVariants();
+    } catch (RuntimeException e) {
+      log.error("Image variant sweep failed", e);
+    }
+  }
+
+  /**
+   * Generates variants for stored images that have none, such as images whose queued work was
+   * lost on restart. Works through them a page at a time to keep the queue short.
+   *
+   * @return the number of images processed
+   */
+  public long sweepMissingVariants() {
+    long processed = 0;
+    String after = urlPrefix;
+    List<String> imageUrls;
+    do {
+      imageUrls =
+          propertyImageRepository.findImageUrlsWithoutVariants(urlPrefix, after, sweepBatchSize);
+      if (imageUrls.isEmpty()) {
+        break;
+      }
+      generateVariants(imageUrls).join();
+      processed += imageUrls.size();
+      after = imageUrls.getLast();
+    } while (imageUrls.size() == sweepBatchSize);
+
+    if (processed > 0) {
+      log.info("Image variant sweep processed {} images", processed);
+    }
+    return processed;
+  }
+
+  void generate(String imageUrl) throws IOException {
+    if (!imageUrl.startsWith(urlPrefix)) {
+      log.debug("Skipping variants for image outside of the bucket: {}", imageUrl);
+      return;
+    }
+
+    // Variants are derived from content-addressed originals, so any complete set can be reused
+    Map<Integer, String> variants = propertyImageRepository.findByImageUrl(imageUrl).stream()
+        .map(PropertyImage::getVariants).filter(Objects::nonNull)
+        .filter(existing -> existing.keySet().containsAll(widths)).findFirst().orElse(null);
+    if (variants == null) {
+      try {
+        variants = render(imageUrl);
+      } catch (IOException | NoSuchKeyException e) {
+        // Undecodable or missing originals fail the same way every time
+        transactionTemplate.executeWithoutResult(status -> propertyImageRepository
+            .findByImageUrl(imageUrl).forEach(image -> image.setVariantsFailed(true)));
+        throw e;
+      }
+    }
+
+    Map<Integer, String> generated = variants;
+    transactionTemplate.executeWithoutResult(status -> propertyImageRepository
+        .findByImageUrl(imageUrl).forEach(image -> image.setVariants(new TreeMap<>(generated))));
+    CacheConfig.evictPropertyCaches(cacheManager);
+    log.info("Stored {} variants for image: {}", generated.size(), imageUrl);
+  }
+
+  private Map<Integer, String> render(String imageUrl) throws IOException {
+    String key = imageUrl.substring(urlPrefix.length());
+    byte[] original;
+    try {
+      original = s3AsyncClient.getObject(request -> request.bucket(bucketName).key(key),
+          AsyncResponseTransformer.toBytes()).join().asByteArray();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof NoSuchKeyException noSuchKeyException) {
+        throw noSuchKeyException;
+      }
+      throw e;
+    }
+
+    Map<Integer, String> variants = new TreeMap<>();
+    ImageReader reader = ImageIO.getImageReadersByFormatName("jpeg").next();
+    try (ImageInputStream input = ImageIO.createImageInputStream(
+        new ByteArrayInputStream(original))) {
+      reader.setInput(input, true, false);
+      int orientation = readOrientation(reader);
+      int width = orientation >= 5 ? reader.getHeight(0) : reader.getWidth(0);
+      int largest = widths.stream().filter(target -> target < width).mapToInt(Integer::intValue)
+          .max().orElse(0);
+
+      if (largest > 0) {
+        // Decoding at no less than twice the largest variant keeps memory bounded for big photos
+        ImageReadParam param = reader.getDefaultReadParam();
+        int subsampling = Math.max(1, width / (2 * largest));
+        param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+        BufferedImage source = orient(reader.read(0, param), orientation);
+
+        for (int target : widths) {
+          if (target < width) {
+            String variantKey = key + "-w" + target;
+            s3AsyncClient.putObject(request -> request.bucket(bucketName).key(variantKey)
+                    .contentType("image/jpeg"),
+                AsyncRequestBody.fromBytes(encode(resize(source, target)))).join();
+            variants.put(target, urlPrefix + variantKey);
+          }
+        }
+      }
+
+      // Variants wider than the original would only upscale it
+      widths.stream().filter(target -> target >= width)
+          .forEach(target -> variants.put(target, imageUrl));
+    } finally {
+      reader.dispose();
+    }
+    return variants;
+  }
+
+  // The EXIF orientation tag of the image, 1 (as stored) when it has none
+  private static int readOrientation(ImageReader reader) throws IOException {
+    Node tree = reader.getImageMetadata(0).getAsTree(JPEG_METADATA_FORMAT);
+    NodeList markers = ((Element) tree).getElementsByTagName("unknown");
+    for (int i = 0; i < markers.getLength(); i++) {
+      IIOMetadataNode marker = (IIOMetadataNode) markers.item(i);
+      if (APP1_MARKER.equals(marker.getAttribute("MarkerTag"))
+          && marker.getUserObject() instanceof byte[] segment) {
+        int orientation = exifOrientation(segment);
+        if (orientation > 0) {
+          return orientation;
+        }
+      }
+    }
+    return 1;
+  }
+
+  // Looks the orientation up in the first IFD of an Exif APP1 segment, 0 when it is not there
+  static int exifOrientation(byte[] segment) {
+    if (segment.length < EXIF_HEADER.length + 8
+        || !Arrays.equals(segment, 0, EXIF_HEADER.length, EXIF_HEADER, 0, EXIF_HEADER.length)) {
+      return 0;
+    }
+    ByteBuffer tiff =
+        ByteBuffer.wrap(segment, EXIF_HEADER.length, segment.length - EXIF_HEADER.length).slice();
+    tiff.order(tiff.get(0) == 'I' ? ByteOrder.LITTLE_ENDIAN : ByteOrder.BIG_ENDIAN);
+    int directory = tiff.getInt(4);
+    if (directory < 8 || directory > tiff.limit() - 2) {
+      return 0;
+    }
+    int entries = Short.toUnsignedInt(tiff.getShort(directory));
+    for (int i = 0; i < entries; i++) {
+      int entry = directory + 2 + i * 12;
+      if (entry > tiff.limit() - 12) {
+        break;
+      }
+      if (Short.toUnsignedInt(tiff.getShort(entry)) == ORIENTATION_TAG) {
+        int orientation = Short.toUnsignedInt(tiff.getShort(entry + 8));
+        return orientation >= 1 && orientation <= 8 ? orientation : 0;
+      }
+    }
+    return 0;
+  }
+
+  // Turns the stored pixels upright; orientations 5 to 8 swap width and height
+  private static BufferedImage orient(BufferedImage source, int orientation) {
+    int width = source.getWidth();
+    int height = source.getHeight();
+    AffineTransform transform = switch (orientation) {
+      case 2 -> new AffineTransform(-1, 0, 0, 1, width, 0);
+      case 3 -> new AffineTransform(-1, 0, 0, -1, width, height);
+      case 4 -> new AffineTransform(1, 0, 0, -1, 0, height);
+      case 5 -> new AffineTransform(0, 1, 1, 0, 0, 0);
+      case 6 -> new AffineTransform(0, 1, -1, 0, height, 0);
+      case 7 -> new AffineTransform(0, -1, -1, 0, height, width);
+      case 8 -> new AffineTransform(0, -1, 1, 0, 0, width);
+      default -> null;
+    };
+    if (transform == null) {
+      return source;
+    }
+
+    BufferedImage target = orientation >= 5
+        ? new BufferedImage(height, width, BufferedImage.TYPE_INT_RGB)
+        : new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+    Graphics2D graphics = target.createGraphics();
+    try {
+      graphics.drawImage(source, transform, null);
+    } finally {
+      graphics.dispose();
+    }
+    return target;
+  }
+
+  // Halving steps keep bilinear scaling from skipping source pixels on large reductions
+  private static BufferedImage resize(BufferedImage source, int width) {
+    BufferedImage current = source;
+    while (current.getWidth() / 2 >= width) {
+      current = scale(current, current.getWidth() / 2);
+    }
+    return current.getWidth() == width ? current : scale(current, width);
+  }
+
+  private static BufferedImage scale(BufferedImage source, int width) {
+    int height = Math.max(1, Math.round((float) source.getHeight() * width / source.getWidth()));
+    BufferedImage target = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+    Graphics2D graphics = target.createGraphics();
+    try {
+      graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION,
+          RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+      graphics.drawImage(source, 0, 0, width, height, null);
+    } finally {
+      graphics.dispose();
+    }
+    return target;
+  }
+
+  private byte[] encode(BufferedImage image) throws IOException {
+    ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+    ImageWriteParam param = writer.getDefaultWriteParam();
+    param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+    param.setCompressionQuality(quality);
+
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+    try (ImageOutputStream imageOutput = ImageIO.createImageOutputStream(output)) {
+      writer.setOutput(imageOutput);
+      writer.write(null, new IIOImage(image, null, null), param);
+    } finally {
+      writer.dispose();
+    }
+    return output.toByteArray();
+  }
+
+  @Override
+  public void close() {
+    executorService.shutdownNow();
+  }
+}
@@ -0,0 +1,252 @@
+package org.apartment.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import lombok.extern.slf4j.Slf4j;
+import org.apartment.config.CacheConfig;
+import org.apartment.dto.PropertyDto;
+import org.apartment.dto.PropertyImportResultDto;
+import org.apartment.entity.Property;
+import org.apartment.entity.PropertyImage;
+import org.apartment.mapper.PropertyMapper;
+import org.apartment.repository.PropertyImageRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
+import software.amazon.awssdk.services.s3.model.HeadObjectRequest;
+import software.amazon.awssdk.services.s3.model.S3Exception;
+
+@Service
+@Slf4j
+public class PropertyImportService {
+  private static final Pattern IMAGE_KEY = Pattern.compile("[0-9a-f]{64}");
+  private static final String NOT_UPLOADED = "Image must reference an uploaded object";
+
+  private final EntityManager entityManager;
+  private final TransactionTemplate transactionTemplate;
+  private final PropertyMapper propertyMapper;
+  private final ObjectMapper objectMapper;
+  private final Validator validator;
+  private final CacheManager cacheManager;
+  private final S3AsyncClient s3AsyncClient;
+  private final PropertyImageRepository propertyImageRepository;
+  private final String imageUrlPrefix;
+  private final String bucketName;
+  private final int batchSize;
+
+  @Autowired
+  public PropertyImportService(EntityManager entityManager,
+                               TransactionTemplate transactionTemplate,
+                               PropertyMapper propertyMapper, ObjectMapper objectMapper,
+                               Validator validator, CacheManager cacheManager,
+                               S3AsyncClient s3AsyncClient,
+                               PropertyImageRepository propertyImageRepository,
+                               @Value("${aws.s3.endpoint}") String s3StorageEndpoint,
+                               @Value("${aws.s3.bucket-name}") String bucketName,
+                               @Value("${property-import.batch-size}") int batchSize) {
+    this.entityManager = entityManager;
+    this.transactionTemplate = transactionTemplate;
+    this.propertyMapper = propertyMapper;
+    this.objectMapper = objectMapper;
+    this.validator = validator;
+    this.cacheManager = cacheManager;
+    this.s3AsyncClient = s3AsyncClient;
+    this.propertyImageRepository = propertyImageRepository;
+    this.imageUrlPrefix = String.format("%s/%s/", s3StorageEndpoint, bucketName);
+    this.bucketName = bucketName;
+    this.batchSize = batchSize;
+  }
+
+  public void importProperties(InputStream input, OutputStream output, String userId)
+      throws IOException {
+    log.info("Starting property import for userId: {}", userId);
+
+    BufferedReader reader =
+        new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+    List<ImportItem> batch = new ArrayList<>(batchSize);
+    long lineNumber = 0;
+    String line;
+    while ((line = reader.readLine()) != null) {
+      lineNumber++;
+      if (line.isBlank()) {
+        continue;
+      }
+
+      try {
+        batch.add(new ImportItem(lineNumber, toProperty(line, userId)));
+      } catch (IllegalArgumentException e) {
+        writeResult(output,
+            PropertyImportResultDto.builder().line(lineNumber).error(e.getMessage()).build());
+      }
+
+      if (batch.size() == batchSize) {
+        saveBatch(batch, output);
+        batch.clear();
+      }
+    }
+    saveBatch(batch, output);
+
+    log.info("Property import finished for userId: {}, lines read: {}", userId, lineNumber);
+  }
+
+  private Property toProperty(String line, String userId) {
+    PropertyDto propertyDto;
+    try {
+      propertyDto = objectMapper.readValue(line, PropertyDto.class);
+    } catch (JsonProcessingException e) {
+      throw new IllegalArgumentException("Malformed JSON: " + e.getOriginalMessage());
+    }
+
+    Set<ConstraintViolation<PropertyDto>> violations = validator.validate(propertyDto);
+    if (!violations.isEmpty()) {
+      throw new IllegalArgumentException(violations.stream().map(ConstraintViolation::getMessage)
+          .sorted().collect(Collectors.joining(", ")));
+    }
+
+    List<PropertyImage> images =
+        propertyDto.getImages() != null ? propertyDto.getImages() : List.of();
+    for (PropertyImage image : images) {
+      if (image.getImageUrl() == null || !image.getImageUrl().startsWith(imageUrlPrefix)
+          || !IMAGE_KEY.matcher(image.getImageUrl().substring(imageUrlPrefix.length()))
+          .matches()) {
+        throw new IllegalArgumentException(NOT_UPLOADED);
+      }
+    }
+
+    propertyDto.setPostedBy(userId);
+    Property property = propertyMapper.toEntity(propertyDto);
+    property.setImages(images.stream()
+        .map(image -> PropertyImage.builder().imageUrl(image.getImageUrl()).property(property)
+            .build()).collect(Collectors.toList()));
+    return property;
+  }
+
+  private void saveBatch(List<ImportItem> chunk, OutputStream output) throws IOException {
+    List<ImportItem> batch = withStoredImages(chunk, output);
+    if (batch.isEmpty()) {
+      output.flush();
+      return;
+    }
+
+    try {
+      persist(batch);
+      for (ImportItem item : batch) {
+        writeResult(output, PropertyImportResultDto.builder().line(item.line())
+            .id(item.property().getId()).build());
+      }
+    } catch (RuntimeException e) {
+      log.warn("Batch insert failed, retrying {} items one by one", batch.size(), e);
+      for (ImportItem item : batch) {
+        item.property().setId(null);
+        item.property().getImages().forEach(image -> image.setId(null));
+        try {
+          persist(List.of(item));
+          writeResult(output, PropertyImportResultDto.builder().line(item.line())
+              .id(item.property().getId()).build());
+        } catch (RuntimeException itemException) {
+          writeResult(output, PropertyImportResultDto.builder().line(item.line())
+              .error("Could not save property").build());
+        }
+      }
+    }
+    output.flush();
+  }
+
+  // The objects are leased before they are checked, as uploads do, so a deletion of their last
+  // reference cannot remove them before the chunk is saved. Items with a missing image are
+  // reported and left out.
+  private List<ImportItem> withStoredImages(List<ImportItem> chunk, OutputStream output)
+      throws IOException {
+    List<String> imageUrls = chunk.stream().flatMap(item -> item.property().getImages().stream())
+        .map(PropertyImage::getImageUrl).distinct().sorted().toList();
+    if (imageUrls.isEmpty()) {
+      return chunk;
+    }
+
+    transactionTemplate.executeWithoutResult(
+        status -> imageUrls.forEach(propertyImageRepository::leaseImage));
+    Map<String, CompletableFuture<Boolean>> stored = imageUrls.stream()
+        .collect(Collectors.toMap(Function.identity(), this::isStored));
+
+    List<ImportItem> items = new ArrayList<>(chunk.size());
+    for (ImportItem item : chunk) {
+      String error = null;
+      for (PropertyImage image : item.property().getImages()) {
+        try {
+          if (!stored.get(image.getImageUrl()).join()) {
+            error = NOT_UPLOADED;
+          }
+        } catch (CompletionException e) {
+          log.warn("Failed to check image: {}", image.getImageUrl(), e.getCause());
+          error = "Could not check image";
+        }
+      }
+
+      if (error == null) {
+        items.add(item);
+      } else {
+        writeResult(output,
+            PropertyImportResultDto.builder().line(item.line()).error(error).build());
+      }
+    }
+    return items;
+  }
+
+  // Without ListBucket permission S3 answers 403 for a missing key, which is treated as missing
+  private CompletableFuture<Boolean> isStored(String imageUrl) {
+    String key = imageUrl.substring(imageUrlPrefix.length());
+    return s3AsyncClient.headObject(HeadObjectRequest.builder().bucket(bucketName).key(key).build())
+        .handle((response, e) -> {
+          if (e == null) {
+            return true;
+          }
+          Throwable cause = e instanceof CompletionException ? e.getCause() : e;
+          if (cause instanceof S3Exception s3Exception
+              && (s3Exception.statusCode() == 404 || s3Exception.statusCode() == 403)) {
+            return false;
+          }
+          throw new CompletionException(cause);
+        });
+  }
+
+  private void persist(List<ImportItem> items) {
+    transactionTemplate.executeWithoutResult(status -> {
+      items.forEach(item -> entityManager.persist(item.property()));
+      entityManager.flush();
+      // Keep the persistence context (and the heap) flat across batches
+      entityManager.clear();
+    });
+    // Evict per committed chunk, since a failure reading the stream leaves earlier chunks saved
+    CacheConfig.evictPropertyCaches(cacheManager);
+  }
+
+  private void writeResult(OutputStream output, PropertyImportResultDto result)
+      throws IOException {
+    output.write(objectMapper.writeValueAsBytes(result));
+    output.write('\n');
+  }
+
+  private record ImportItem(long line, Property property) {
+  }
+}
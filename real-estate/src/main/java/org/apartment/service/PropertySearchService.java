@@ -1,15 +1,33 @@
 package org.apartment.service;
 
 import jakarta.persistence.EntityManager;
+import java.math.BigDecimal;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apartment.config.CacheConfig;
+import org.apartment.dto.PropertyDto;
 import org.apartment.dto.PropertySearchDto;
+import org.apartment.dto.PropertySearchHit;
+import org.apartment.dto.PropertySearchResultDto;
 import org.apartment.entity.Property;
+import org.apartment.entity.PropertyDealType;
+import org.apartment.entity.PropertyImage;
 import org.apartment.entity.PropertyStatus;
+import org.apartment.entity.PropertyType;
+import org.hibernate.search.engine.search.aggregation.AggregationKey;
 import org.hibernate.search.engine.search.predicate.dsl.BooleanPredicateClausesStep;
+import org.hibernate.search.engine.search.query.SearchResult;
+import org.hibernate.search.engine.search.query.dsl.SearchQueryOptionsStep;
+import org.hibernate.search.engine.search.query.dsl.SearchQuerySelectStep;
 import org.hibernate.search.mapper.orm.Search;
-import org.hibernate.search.mapper.orm.session.SearchSession;
+import org.hibernate.search.util.common.data.Range;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 
 @Service
@@ -17,9 +35,28 @@ import org.springframework.stereotype.Service;
 @Slf4j
 public class PropertySearchService {
 
+  private static final AggregationKey<Map<String, Long>> CITY_FACET = AggregationKey.of("city");
+  private static final AggregationKey<Map<PropertyType, Long>> TYPE_FACET =
+      AggregationKey.of("type");
+  private static final AggregationKey<Map<PropertyDealType, Long>> DEAL_TYPE_FACET =
+      AggregationKey.of("propertyDealType");
+  private static final AggregationKey<Map<PropertyStatus, Long>> STATUS_FACET =
+      AggregationKey.of("status");
+  private static final AggregationKey<Map<Range<BigDecimal>, Long>> PRICE_FACET =
+      AggregationKey.of("price");
+  private static final List<Range<BigDecimal>> PRICE_BUCKETS = List.of(
+      Range.lessThan(BigDecimal.valueOf(100_000)),
+      Range.canonical(BigDecimal.valueOf(100_000), BigDecimal.valueOf(300_000)),
+      Range.canonical(BigDecimal.valueOf(300_000), BigDecimal.valueOf(500_000)),
+      Range.canonical(BigDecimal.valueOf(500_000), BigDecimal.valueOf(1_000_000)),
+      Range.atLeast(BigDecimal.valueOf(1_000_000)));
+
   private final EntityManager entityManager;
 
-  public List<Property> searchProperties(PropertySearchDto propertySearchDto, int page, int size) {
+  // Not cached while the index is updated through the outbox, see CacheConfig
+  @Cacheable(cacheNames = CacheConfig.PROPERTY_SEARCH_CACHE, key = "{#p0.normalized(), #p1, #p2}")
+  public PropertySearchResultDto searchProperties(PropertySearchDto propertySearchDto, int page,
+                                                  int size) {
     log.info("Starting search for properties with keyword: {}, price range: {} - {}, "
             + "date range: {} - {}, property type: {}, city: {}, deal type: {}",
         propertySearchDto.getKeyword(), propertySearchDto.getMinPrice(),
@@ -30,16 +67,52 @@ public class PropertySearchService {
     long startTime = System.currentTimeMillis();
     log.info("Search started at: {}", startTime);
 
-    SearchSession searchSession = Search.session(entityManager);
+    SearchResult<PropertySearchHit> result =
+        buildQuery(Search.session(entityManager).search(Property.class), propertySearchDto)
+            .fetch(page * size, size);
+
+    long endTime = System.currentTimeMillis();
+    log.info("Search completed at: {}, Total time: {} ms", endTime, endTime - startTime);
+
+    Map<String, Map<String, Long>> facets = new LinkedHashMap<>();
+    facets.put("city", toFacet(result.aggregation(CITY_FACET)));
+    facets.put("type", toFacet(result.aggregation(TYPE_FACET)));
+    facets.put("propertyDealType", toFacet(result.aggregation(DEAL_TYPE_FACET)));
+    facets.put("status", toFacet(result.aggregation(STATUS_FACET)));
+
+    Map<Range<BigDecimal>, Long> priceCounts = result.aggregation(PRICE_FACET);
+    Map<String, Long> priceFacet = new LinkedHashMap<>();
+    PRICE_BUCKETS.forEach(range -> priceFacet.put(toLabel(range), priceCounts.get(range)));
+    facets.put("price", priceFacet);
 
-    List<Property> properties = searchSession.search(Property.class).where(f -> {
-      BooleanPredicateClausesStep<?> query = f.bool().must(f.range().field("price")
+    Page<PropertyDto> pageOfProperties = new PageImpl<>(
+        result.hits().stream().map(PropertySearchService::toPropertyDto).toList(),
+        PageRequest.of(page, size), result.total().hitCount());
+
+    return PropertySearchResultDto.builder().content(pageOfProperties.getContent())
+        .totalElements(pageOfProperties.getTotalElements())
+        .totalPages(pageOfProperties.getTotalPages()).last(pageOfProperties.isLast())
+        .first(pageOfProperties.isFirst())
+        .numberOfElements(pageOfProperties.getNumberOfElements()).facets(facets).build();
+  }
+
+  /**
+   * Builds the search query with its filters, hit projection and facets. Shared with the search
+   * benchmark, which runs it against a standalone mapping of the same index.
+   */
+  public static SearchQueryOptionsStep<?, PropertySearchHit, ?, ?, ?> buildQuery(
+      SearchQuerySelectStep<?, ?, Property, ?, ?, ?> search,
+      PropertySearchDto propertySearchDto) {
+    return search.select(PropertySearchHit.class).where(f -> {
+      BooleanPredicateClausesStep<?> query = f.bool()
+          .must(f.range().field("price")
               .between(propertySearchDto.getMinPrice(), propertySearchDto.getMaxPrice()))
           .must(f.range().field("createdAt")
               .between(propertySearchDto.getStartDate(), propertySearchDto.getEndDate()));
 
       if (!propertySearchDto.getKeyword().isEmpty()) {
-        query.must(f.match().fields("title", "description").matching(propertySearchDto.getKeyword()));
+        query.must(f.match().fields("title", "description")
+            .matching(propertySearchDto.getKeyword()));
       }
 
       if (!propertySearchDto.getCity().isEmpty()) {
@@ -56,15 +129,40 @@ public class PropertySearchService {
       }
 
       if (propertySearchDto.getPropertyDealType() != null) {
-        query.must(f.match().field("propertyDealType").matching(propertySearchDto.getPropertyDealType()));
+        query.must(f.match().field("propertyDealType")
+            .matching(propertySearchDto.getPropertyDealType()));
       }
 
       return query;
-    }).fetch(page * size, size).hits();
+    }).aggregation(CITY_FACET, f -> f.terms().field("city_keyword", String.class))
+        .aggregation(TYPE_FACET, f -> f.terms().field("type", PropertyType.class))
+        .aggregation(DEAL_TYPE_FACET,
+            f -> f.terms().field("propertyDealType", PropertyDealType.class))
+        .aggregation(STATUS_FACET, f -> f.terms().field("status", PropertyStatus.class))
+        .aggregation(PRICE_FACET,
+            f -> f.range().field("price", BigDecimal.class).ranges(PRICE_BUCKETS));
+  }
 
-    long endTime = System.currentTimeMillis();
-    log.info("Search completed at: {}, Total time: {} ms", endTime, endTime - startTime);
+  private static Map<String, Long> toFacet(Map<?, Long> counts) {
+    Map<String, Long> facet = new LinkedHashMap<>();
+    counts.forEach((term, count) -> facet.put(String.valueOf(term), count));
+    return facet;
+  }
+
+  private static String toLabel(Range<BigDecimal> range) {
+    String lower = range.lowerBoundValue().map(BigDecimal::toPlainString).orElse("*");
+    String upper = range.upperBoundValue().map(BigDecimal::toPlainString).orElse("*");
+    return lower + "-" + upper;
+  }
 
-    return properties;
+  private static PropertyDto toPropertyDto(PropertySearchHit hit) {
+    List<PropertyImage> images = hit.images().stream()
+        .map(image -> PropertyImage.builder().id(image.id()).imageUrl(image.imageUrl())
+            .variants(image.variants()).build())
+        .toList();
+    return PropertyDto.builder().title(hit.title()).description(hit.description())
+        .type(hit.type()).propertyDealType(hit.propertyDealType()).price(hit.price())
+        .city(hit.city()).status(hit.status()).postedBy(hit.postedBy()).images(images)
+        .createdAt(hit.createdAt()).updatedAt(hit.updatedAt()).build();
   }
 }
@@ -1,22 +1,36 @@
 package org.apartment.service;
 
-import jakarta.transaction.Transactional;
+import jakarta.persistence.EntityManager;
 import java.util.List;
-import java.util.Set;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apartment.config.CacheConfig;
+import org.apartment.dto.DeletedPropertyRow;
+import org.apartment.dto.PropertyCursor;
 import org.apartment.dto.PropertyDto;
+import org.apartment.dto.PropertyFeedDto;
 import org.apartment.dto.PropertyListDto;
+import org.apartment.dto.PropertyListingRow;
+import org.apartment.dto.UploadedFile;
 import org.apartment.entity.Property;
 import org.apartment.entity.PropertyImage;
-import org.apartment.mapper.PropertyMapper;
-import org.apartment.repository.PropertyImageRepository;
+import org.apartment.mapper.PropertyListMapper;
 import org.apartment.repository.PropertyRepository;
+import org.hibernate.search.mapper.orm.Search;
+import org.hibernate.search.mapper.orm.work.SearchIndexingPlan;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+import org.springframework.kafka.support.Acknowledgment;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
@@ -27,65 +41,144 @@ import org.springframework.web.multipart.MultipartFile;
 public class PropertyService {
 
   private final PropertyRepository propertyRepository;
-  private final PropertyImageRepository propertyImageRepository;
   private final UploadService uploadService;
   private final TransactionTemplate transactionTemplate;
-  private final PropertyMapper propertyMapper;
-
-  @Transactional
-  public Property createProperty(Property property, MultipartFile[] imageFiles) {
+  private final PropertyListMapper propertyListMapper;
+  private final CacheManager cacheManager;
+  private final ImageVariantService imageVariantService;
+  private final ImageDeletionService imageDeletionService;
+  private final EntityManager entityManager;
+
+  public CompletableFuture<Property> createProperty(Property property,
+                                                    MultipartFile[] imageFiles) {
     log.info("Starting the property creation process for property with title: {}",
         property.getTitle());
 
     log.info("Uploading images...");
-    List<String> imageUrls = uploadService.uploadFiles(imageFiles);
-    log.info("Images uploaded successfully. Number of images: {}", imageUrls.size());
+    return uploadService.uploadFiles(imageFiles).thenApply(uploadedFiles -> {
+      log.info("Images uploaded successfully. Number of images: {}", uploadedFiles.size());
+
+      log.info("Mapping image URLs to PropertyImage entities...");
+      List<PropertyImage> propertyImages = uploadedFiles.stream()
+          .map(uploadedFile -> PropertyImage.builder().imageUrl(uploadedFile.url())
+              .property(property).build())
+          .collect(Collectors.toList());
+      log.info("Mapped {} image URLs to PropertyImage entities.", propertyImages.size());
 
-    log.info("Mapping image URLs to PropertyImage entities...");
-    List<PropertyImage> propertyImages = imageUrls.stream()
-        .map(imageUrl -> PropertyImage.builder().imageUrl(imageUrl).property(property).build())
-        .collect(Collectors.toList());
-    log.info("Mapped {} image URLs to PropertyImage entities.", propertyImages.size());
+      property.setImages(propertyImages);
+      log.info("Property images set successfully.");
 
-    property.setImages(propertyImages);
-    log.info("Property images set successfully.");
+      Property savedProperty =
+          transactionTemplate.execute(status -> propertyRepository.save(property));
+      CacheConfig.evictPropertyCaches(cacheManager);
+      log.info("Property with ID {} created successfully.", savedProperty.getId());
 
-    Property savedProperty = propertyRepository.save(property);
-    log.info("Property with ID {} created successfully.", savedProperty.getId());
+      imageVariantService.generateVariants(
+          uploadedFiles.stream().map(UploadedFile::url).toList());
 
-    return savedProperty;
+      return savedProperty;
+    });
   }
 
-  @KafkaListener(topics = "account_data_delete", groupId = "clear_user_data")
-  public void deleteProperty(String userId) {
-    log.info("Received request to delete data for userId: {}", userId);
+  @KafkaListener(topics = "account_data_delete", groupId = "clear_user_data",
+      containerFactory = "batchKafkaListenerContainerFactory")
+  public void deleteProperties(List<String> userIds, Acknowledgment acknowledgment) {
+    List<String> distinctUserIds = userIds.stream().distinct().toList();
+    log.info("Received request to delete data for {} users", distinctUserIds.size());
+
+    try {
+      deleteUserData(distinctUserIds);
+    } catch (RuntimeException e) {
+      log.warn("Failed to delete data for a batch of {} users, deleting it user by user",
+          distinctUserIds.size(), e);
+      deleteUserDataOneByOne(userIds);
+    }
+    // Offsets are committed only once the data is gone or its images are queued for retry
+    acknowledgment.acknowledge();
+    log.info("Finished deleting data for userIds: {}", distinctUserIds);
+  }
 
-    List<String> imageUrls = transactionTemplate.execute(status -> {
-      log.info("Deleting property and images for userId: {}", userId);
-      List<String> urls = propertyImageRepository.findImageUrlsByUserId(userId);
-      propertyImageRepository.deleteByUserId(userId);
-      propertyRepository.deleteByUserId(userId);
-      return urls;
+  // Reports the first user whose data cannot be deleted, so only that record is retried and
+  // dead-lettered while the offsets of the users before it are committed
+  private void deleteUserDataOneByOne(List<String> userIds) {
+    for (int index = 0; index < userIds.size(); index++) {
+      try {
+        deleteUserData(List.of(userIds.get(index)));
+      } catch (RuntimeException e) {
+        throw new BatchListenerFailedException(
+            "Failed to delete data for userId: " + userIds.get(index), e, index);
+      }
+    }
+  }
+
+  private void deleteUserData(List<String> userIds) {
+    List<DeletedPropertyRow> deleted = transactionTemplate.execute(status -> {
+      List<DeletedPropertyRow> rows = propertyRepository.deleteByUserIds(userIds);
+      // The native delete bypasses Hibernate Search, so the removed documents are purged here and
+      // the purge is written to the outbox in the same transaction
+      SearchIndexingPlan indexingPlan = Search.session(entityManager).indexingPlan();
+      rows.stream().map(DeletedPropertyRow::getPropertyId).distinct()
+          .forEach(id -> indexingPlan.purge(Property.class, id, null));
+      return rows;
     });
 
-    uploadService.deleteFiles(imageUrls);
-    log.info("Successfully deleted files for userId: {}", userId);
+    long deletedProperties =
+        deleted.stream().map(DeletedPropertyRow::getPropertyId).distinct().count();
+    if (deletedProperties > 0) {
+      CacheConfig.evictPropertyCaches(cacheManager);
+    }
+    List<String> imageUrls = deleted.stream().map(DeletedPropertyRow::getFileUrl)
+        .filter(Objects::nonNull).distinct().toList();
+    log.info("Deleted {} properties for userIds: {}, {} files to remove", deletedProperties,
+        userIds, imageUrls.size());
+
+    imageDeletionService.deleteImages(imageUrls);
   }
 
+  @Cacheable(cacheNames = CacheConfig.PROPERTIES_CACHE, key = "{'page', #p0, #p1}")
   public PropertyListDto getProperties(int page, int size) {
     log.info("Fetching properties, page: {}, size: {}", page, size);
 
     Pageable pageable = PageRequest.of(page, size);
-    final Page<String> pageOfIds = propertyRepository.findAllIds(pageable);
-    final Set<String> ids = Set.copyOf(pageOfIds.getContent());
-    final List<Property> properties = propertyRepository.findByIdIn(ids);
-
-    List<PropertyDto> propertyDtos =
-        properties.stream().map(propertyMapper::toDto).collect(Collectors.toList());
+    List<PropertyListingRow> rows =
+        propertyRepository.findPageRows(pageable.getPageSize(), pageable.getOffset());
+    List<PropertyDto> propertyDtos = propertyListMapper.toPropertyDtos(rows);
+    Page<PropertyDto> pageOfProperties =
+        new PageImpl<>(propertyDtos, pageable, propertyRepository.count());
 
     return PropertyListDto.builder().content(propertyDtos)
-        .totalElements((int) pageOfIds.getTotalElements()).totalPages(pageOfIds.getTotalPages())
-        .last(pageOfIds.isLast()).first(pageOfIds.isFirst())
-        .numberOfElements(pageOfIds.getNumberOfElements()).build();
+        .totalElements((int) pageOfProperties.getTotalElements())
+        .totalPages(pageOfProperties.getTotalPages()).last(pageOfProperties.isLast())
+        .first(pageOfProperties.isFirst())
+        .numberOfElements(pageOfProperties.getNumberOfElements()).build();
+  }
+
+  @Cacheable(cacheNames = CacheConfig.PROPERTIES_CACHE,
+      key = "{'cursor', #p0, #p1, #p2}")
+  public PropertyFeedDto getPropertiesAfter(String cursor, int size, boolean withCount) {
+    log.info("Fetching properties after cursor: {}, size: {}", cursor, size);
+
+    List<PropertyListingRow> rows;
+    if (cursor == null || cursor.isBlank()) {
+      rows = propertyRepository.findPageRows(size + 1, 0);
+    } else {
+      PropertyCursor after = PropertyCursor.decode(cursor);
+      rows = propertyRepository.findPageRowsAfter(after.createdAt(), after.id(), size + 1);
+    }
+
+    List<PropertyDto> propertyDtos = propertyListMapper.toPropertyDtos(rows);
+    boolean last = propertyDtos.size() <= size;
+    String nextCursor = null;
+    if (!last) {
+      propertyDtos = propertyDtos.subList(0, size);
+      UUID lastId = rows.stream().map(PropertyListingRow::id).distinct().toList().get(size - 1);
+      PropertyListingRow lastRow =
+          rows.stream().filter(row -> row.id().equals(lastId)).findFirst().orElseThrow();
+      nextCursor = new PropertyCursor(lastRow.createdAt(), lastRow.id()).encode();
+    }
+
+    return PropertyFeedDto.builder().content(propertyDtos).nextCursor(nextCursor).last(last)
+        .numberOfElements(propertyDtos.size())
+        .totalElements(withCount ? propertyRepository.count() : null).build();
   }
 }
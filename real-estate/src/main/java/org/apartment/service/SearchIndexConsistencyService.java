@@ -0,0 +1,136 @@
+package org.apartment.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.extern.slf4j.Slf4j;
+import org.apartment.config.SearchIndexingMetrics;
+import org.apartment.entity.Property;
+import org.apartment.repository.PropertyRepository;
+import org.hibernate.search.engine.search.query.SearchScroll;
+import org.hibernate.search.engine.search.query.SearchScrollResult;
+import org.hibernate.search.mapper.orm.Search;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Compares the number of indexed properties with the property table and purges index documents
+ * whose rows no longer exist, e.g. after bulk deletes that bypassed Hibernate Search.
+ */
+@Service
+@Slf4j
+public class SearchIndexConsistencyService {
+  private final EntityManager entityManager;
+  private final EntityManagerFactory entityManagerFactory;
+  private final PropertyRepository propertyRepository;
+  private final TransactionTemplate transactionTemplate;
+  private final JdbcTemplate jdbcTemplate;
+  private final boolean repair;
+  private final int batchSize;
+  private final AtomicLong indexedDocuments = new AtomicLong();
+  private final AtomicLong drift = new AtomicLong();
+  private final Counter purgedOrphans;
+
+  @Autowired
+  public SearchIndexConsistencyService(EntityManager entityManager,
+                                       EntityManagerFactory entityManagerFactory,
+                                       PropertyRepository propertyRepository,
+                                       TransactionTemplate transactionTemplate,
+                                       JdbcTemplate jdbcTemplate,
+                                       @Value("${search-consistency.repair}") boolean repair,
+                                       @Value("${search-consistency.batch-size}") int batchSize,
+                                       MeterRegistry registry) {
+    this.entityManager = entityManager;
+    this.entityManagerFactory = entityManagerFactory;
+    this.propertyRepository = propertyRepository;
+    this.transactionTemplate = transactionTemplate;
+    this.jdbcTemplate = jdbcTemplate;
+    this.repair = repair;
+    this.batchSize = batchSize;
+
+    Gauge.builder("search.index.documents", indexedDocuments, AtomicLong::get)
+        .description("Properties in the search index at the last consistency check")
+        .register(registry);
+    Gauge.builder("search.index.drift", drift, AtomicLong::get)
+        .description("Indexed properties minus stored properties at the last consistency check")
+        .register(registry);
+    this.purgedOrphans = Counter.builder("search.index.orphans.purged")
+        .description("Index documents purged because their property no longer exists")
+        .register(registry);
+  }
+
+  @Scheduled(initialDelayString = "${search-consistency.interval}",
+      fixedDelayString = "${search-consistency.interval}")
+  public void scheduledCheck() {
+    try {
+      checkConsistency();
+    } catch (RuntimeException e) {
+      log.error("Search index consistency check failed", e);
+    }
+  }
+
+  /**
+   * @return the number of orphaned index documents purged
+   */
+  public long checkConsistency() {
+    Long pending = jdbcTemplate.queryForObject(SearchIndexingMetrics.PENDING_QUERY, Long.class);
+    if (pending != null && pending > 0) {
+      // Counts legitimately differ until the outbox is drained
+      log.info("Skipping search index consistency check, {} index changes pending", pending);
+      return 0;
+    }
+
+    long indexed = transactionTemplate.execute(status -> Search.session(entityManager)
+        .search(Property.class).where(f -> f.matchAll()).fetchTotalHitCount());
+    long stored = propertyRepository.count();
+    indexedDocuments.set(indexed);
+    drift.set(indexed - stored);
+
+    if (indexed == stored) {
+      log.info("Search index is consistent: {} properties", stored);
+      return 0;
+    }
+    // Orphaned documents can hide behind missing ones, so any difference triggers a scan
+    log.warn("Search index has {} properties, database has {}", indexed, stored);
+    if (!repair) {
+      return 0;
+    }
+
+    long purged = purgeOrphans();
+    purgedOrphans.increment(purged);
+    log.info("Purged {} orphaned documents from the search index", purged);
+    return purged;
+  }
+
+  private long purgeOrphans() {
+    long purged = 0;
+    // Only ids are projected, so the scroll reads the index alone and needs no transaction
+    try (EntityManager scrollEntityManager = entityManagerFactory.createEntityManager();
+         SearchScroll<UUID> scroll = Search.session(scrollEntityManager).search(Property.class)
+             .select(f -> f.id(UUID.class)).where(f -> f.matchAll()).scroll(batchSize)) {
+      for (SearchScrollResult<UUID> chunk = scroll.next(); chunk.hasHits();
+           chunk = scroll.next()) {
+        List<UUID> ids = chunk.hits();
+        purged += transactionTemplate.execute(status -> {
+          Set<UUID> orphans = new HashSet<>(ids);
+          propertyRepository.findExistingIds(ids).forEach(orphans::remove);
+          orphans.forEach(id -> Search.session(entityManager).indexingPlan()
+              .purge(Property.class, id, null));
+          return (long) orphans.size();
+        });
+      }
+    }
+    return purged;
+  }
+}
@@ -0,0 +1,161 @@
+package org.apartment.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.extern.slf4j.Slf4j;
+import org.apartment.dto.ReindexStatus;
+import org.apartment.entity.Property;
+import org.hibernate.search.mapper.orm.Search;
+import org.hibernate.search.mapper.pojo.massindexing.MassIndexingMonitor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Rebuilds the property index in place while it keeps serving searches. Documents are overwritten
+ * as they are reindexed instead of purging the index first, documents of rows deleted meanwhile
+ * are removed by the consistency check once indexing completes.
+ */
+@Service
+@Slf4j
+public class SearchReindexService {
+  private final EntityManagerFactory entityManagerFactory;
+  private final SearchIndexConsistencyService searchIndexConsistencyService;
+  private final int threads;
+  private final int batchSize;
+  private final int idFetchSize;
+  private final AtomicBoolean running = new AtomicBoolean();
+  private final AtomicLong total = new AtomicLong();
+  private final AtomicLong indexed = new AtomicLong();
+  private volatile String state = "idle";
+  private volatile long startNanos;
+  private volatile Instant startedAt;
+
+  @Autowired
+  public SearchReindexService(EntityManagerFactory entityManagerFactory,
+                              SearchIndexConsistencyService searchIndexConsistencyService,
+                              @Value("${search-reindex.threads}") int threads,
+                              @Value("${search-reindex.batch-size}") int batchSize,
+                              @Value("${search-reindex.id-fetch-size}") int idFetchSize,
+                              MeterRegistry registry) {
+    this.entityManagerFactory = entityManagerFactory;
+    this.searchIndexConsistencyService = searchIndexConsistencyService;
+    this.threads = threads;
+    this.batchSize = batchSize;
+    this.idFetchSize = idFetchSize;
+
+    Gauge.builder("search.reindex.running", running, value -> value.get() ? 1 : 0)
+        .description("Whether a mass reindex is in progress").register(registry);
+    Gauge.builder("search.reindex.documents.total", total, AtomicLong::get)
+        .description("Properties to index in the current or last mass reindex")
+        .register(registry);
+    Gauge.builder("search.reindex.documents.indexed", indexed, AtomicLong::get)
+        .description("Properties indexed so far by the current or last mass reindex")
+        .register(registry);
+    Gauge.builder("search.reindex.throughput", this, SearchReindexService::documentsPerSecond)
+        .description("Documents indexed per second by the current mass reindex")
+        .register(registry);
+    Gauge.builder("search.reindex.eta", this, service -> {
+      Long eta = service.etaSeconds();
+      return eta != null ? eta : 0;
+    }).description("Estimated time until the current mass reindex completes")
+        .baseUnit("seconds").register(registry);
+  }
+
+  /**
+   * @return false if a mass reindex is already running
+   */
+  public boolean start() {
+    if (!running.compareAndSet(false, true)) {
+      return false;
+    }
+
+    total.set(0);
+    indexed.set(0);
+    startNanos = System.nanoTime();
+    startedAt = Instant.now();
+    state = "running";
+    log.info("Starting mass reindex: threads={}, batchSize={}, idFetchSize={}", threads,
+        batchSize, idFetchSize);
+
+    try {
+      Search.mapping(entityManagerFactory).scope(Property.class).massIndexer()
+          .threadsToLoadObjects(threads).batchSizeToLoadObjects(batchSize)
+          .idFetchSize(idFetchSize).purgeAllOnStart(false).dropAndCreateSchemaOnStart(false)
+          .mergeSegmentsOnFinish(true).monitor(new Monitor()).start()
+          .whenComplete((result, e) -> complete(e));
+    } catch (RuntimeException e) {
+      complete(e);
+      throw e;
+    }
+    return true;
+  }
+
+  public ReindexStatus status() {
+    return new ReindexStatus(state, startedAt, total.get(), indexed.get(), documentsPerSecond(),
+        etaSeconds());
+  }
+
+  private void complete(Throwable e) {
+    long elapsed = TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - startNanos);
+    if (e != null) {
+      state = "failed";
+      log.error("Mass reindex failed after {} s, {} of {} documents indexed", elapsed,
+          indexed.get(), total.get(), e);
+    } else {
+      state = "completed";
+      log.info("Mass reindex completed in {} s, {} documents indexed", elapsed, indexed.get());
+      try {
+        searchIndexConsistencyService.checkConsistency();
+      } catch (RuntimeException checkFailure) {
+        log.error("Consistency check after mass reindex failed", checkFailure);
+      }
+    }
+    running.set(false);
+  }
+
+  private double documentsPerSecond() {
+    if (!running.get()) {
+      return 0;
+    }
+    double seconds = (System.nanoTime() - startNanos) / 1_000_000_000.0;
+    return seconds > 0 ? indexed.get() / seconds : 0;
+  }
+
+  private Long etaSeconds() {
+    double rate = documentsPerSecond();
+    if (rate == 0) {
+      return null;
+    }
+    return Math.round(Math.max(0, total.get() - indexed.get()) / rate);
+  }
+
+  private class Monitor implements MassIndexingMonitor {
+    @Override
+    public void documentsAdded(long increment) {
+      indexed.addAndGet(increment);
+    }
+
+    @Override
+    public void documentsBuilt(long number) {
+    }
+
+    @Override
+    public void entitiesLoaded(long size) {
+    }
+
+    @Override
+    public void addToTotalCount(long count) {
+      total.addAndGet(count);
+    }
+
+    @Override
+    public void indexingCompleted() {
+    }
+  }
+}
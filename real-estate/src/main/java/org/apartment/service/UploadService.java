@@ -1,111 +1,259 @@
 package org.apartment.service;
 
+import java.io.BufferedInputStream;
+import java.io.IOException;
 import java.io.InputStream;
-import java.util.Arrays;
+import java.io.OutputStream;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HexFormat;
 import java.util.List;
-import java.util.UUID;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
-import java.util.stream.Collectors;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
 import lombok.extern.slf4j.Slf4j;
+import org.apartment.config.UploadExecutor;
+import org.apartment.dto.UploadedFile;
+import org.apartment.exception.FileReadException;
+import org.apartment.repository.PropertyImageRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
-import software.amazon.awssdk.core.sync.RequestBody;
-import software.amazon.awssdk.services.s3.S3Client;
-import software.amazon.awssdk.services.s3.model.Delete;
-import software.amazon.awssdk.services.s3.model.DeleteObjectsRequest;
-import software.amazon.awssdk.services.s3.model.ObjectIdentifier;
+import software.amazon.awssdk.core.async.AsyncRequestBody;
+import software.amazon.awssdk.core.async.BlockingInputStreamAsyncRequestBody;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
+import software.amazon.awssdk.services.s3.model.HeadObjectRequest;
 import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import software.amazon.awssdk.services.s3.model.PutObjectResponse;
+import software.amazon.awssdk.services.s3.model.S3Exception;
 
 @Service
 @Slf4j
 public class UploadService {
-  private final S3Client s3Client;
+  private final S3AsyncClient s3AsyncClient;
   private final String s3StorageEndpoint;
   private final String bucketName;
   private final FileValidationService fileValidationService;
+  private final UploadExecutor uploadExecutor;
+  private final PropertyImageRepository propertyImageRepository;
+  private final TransactionTemplate transactionTemplate;
+  private final Duration requestTimeout;
+  private final Map<String, CompletableFuture<Void>> storing = new ConcurrentHashMap<>();
 
   @Autowired
-  public UploadService(S3Client s3Client, @Value("${aws.s3.endpoint}") String s3StorageEndpoint,
+  public UploadService(S3AsyncClient s3AsyncClient,
+                       @Value("${aws.s3.endpoint}") String s3StorageEndpoint,
                        @Value("${aws.s3.bucket-name}") String bucketName,
-                       FileValidationService fileValidationService) {
-    this.s3Client = s3Client;
+                       FileValidationService fileValidationService,
+                       UploadExecutor uploadExecutor,
+                       PropertyImageRepository propertyImageRepository,
+                       TransactionTemplate transactionTemplate,
+                       @Value("${upload-executor.request-timeout}") Duration requestTimeout) {
+    this.s3AsyncClient = s3AsyncClient;
     this.s3StorageEndpoint = s3StorageEndpoint;
     this.bucketName = bucketName;
     this.fileValidationService = fileValidationService;
+    this.uploadExecutor = uploadExecutor;
+    this.propertyImageRepository = propertyImageRepository;
+    this.transactionTemplate = transactionTemplate;
+    this.requestTimeout = requestTimeout;
   }
 
-  public List<String> uploadFiles(MultipartFile[] files) {
+  public CompletableFuture<List<UploadedFile>> uploadFiles(MultipartFile[] files) {
     log.info("Starting file upload. Total files to upload: {}", files.length);
     fileValidationService.validateFiles(files);
+
+    List<ImagePart> parts = new ArrayList<>(files.length);
+    try {
+      for (MultipartFile file : files) {
+        parts.add(openValidated(file));
+      }
+    } catch (RuntimeException e) {
+      parts.forEach(ImagePart::close);
+      throw e;
+    }
     log.info("File validation completed successfully.");
 
-    List<CompletableFuture<String>> uploadFutures =
-        Arrays.stream(files).map(file -> CompletableFuture.supplyAsync(() -> {
-          String originalFilename = file.getOriginalFilename();
-          try {
-            log.info("Uploading file: {}", originalFilename);
+    List<CompletableFuture<UploadedFile>> uploadFutures = new ArrayList<>(parts.size());
+    try {
+      for (ImagePart part : parts) {
+        uploadFutures.add(uploadExecutor.submit(() -> uploadPart(part)));
+      }
+    } catch (RuntimeException e) {
+      cancel(uploadFutures, parts);
+      throw e;
+    }
+
+    // Fails as soon as any upload fails instead of waiting for the remaining ones
+    CompletableFuture<List<UploadedFile>> uploadedFiles = new CompletableFuture<>();
+    uploadFutures.forEach(uploadFuture -> uploadFuture.whenComplete((uploadedFile, e) -> {
+      if (e != null) {
+        uploadedFiles.completeExceptionally(e);
+      }
+    }));
+    CompletableFuture.allOf(uploadFutures.toArray(new CompletableFuture[0]))
+        .thenRun(() -> uploadedFiles.complete(
+            uploadFutures.stream().map(CompletableFuture::join).toList()));
+
+    return uploadedFiles.orTimeout(requestTimeout.toMillis(), TimeUnit.MILLISECONDS)
+        .whenComplete((uploaded, e) -> {
+          if (e != null) {
+            log.error("File upload failed, cancelling remaining uploads", e);
+            cancel(uploadFutures, parts);
+          } else {
+            log.info("All file uploads completed successfully. Uploaded files: {}", uploaded);
+          }
+        });
+  }
 
-            String uniqueFileName = UUID.randomUUID().toString();
+  private UploadedFile uploadPart(ImagePart part) throws InterruptedException {
+    String originalFilename = part.file().getOriginalFilename();
+    try (part) {
+      log.info("Uploading file: {}", originalFilename);
+      UploadedFile uploadedFile = upload(part);
+      log.info("File uploaded successfully. File URL: {}, SHA-256: {}",
+          uploadedFile.url(), uploadedFile.sha256());
 
-            PutObjectRequest putObjectRequest =
-                PutObjectRequest.builder().bucket(bucketName).key(uniqueFileName).build();
+      return uploadedFile;
+    } catch (InterruptedException e) {
+      log.warn("Upload of file {} was cancelled", originalFilename);
+      throw e;
+    } catch (Exception e) {
+      log.error("Error while uploading file: {}", originalFilename, e);
+      throw new RuntimeException("Error while uploading file: " + originalFilename, e);
+    }
+  }
 
-            try (InputStream inputStream = file.getInputStream()) {
-              log.debug("Starting upload to S3 for file: {}", originalFilename);
-              s3Client.putObject(putObjectRequest,
-                  RequestBody.fromInputStream(inputStream, file.getSize()));
-              log.debug("Upload completed for file: {}", originalFilename);
-            }
+  // Interrupts uploads still streaming to S3 and releases the parts of those that never started
+  private void cancel(List<CompletableFuture<UploadedFile>> uploadFutures,
+                      List<ImagePart> parts) {
+    uploadFutures.forEach(uploadFuture -> uploadFuture.cancel(true));
+    parts.forEach(ImagePart::close);
+  }
 
-            String fileUrl =
-                String.format("%s/%s/%s", s3StorageEndpoint, bucketName, uniqueFileName);
-            log.info("File uploaded successfully. File URL: {}", fileUrl);
+  // The digest sees every byte the header check reads or skips, and upload drains the rest
+  private ImagePart openValidated(MultipartFile file) {
+    MessageDigest digest = sha256();
+    InputStream inputStream;
+    try {
+      inputStream = new BufferedInputStream(new DigestInputStream(file.getInputStream(), digest));
+    } catch (IOException e) {
+      throw new FileReadException("Error reading the image file");
+    }
 
-            return fileUrl;
-          } catch (Exception e) {
-            log.error("Error while uploading file: {}", originalFilename, e);
-            throw new RuntimeException("Error while uploading file: " + originalFilename, e);
-          }
-        })).toList();
+    ImagePart part = new ImagePart(file, inputStream, digest);
+    try {
+      fileValidationService.validateImageHeader(inputStream);
+    } catch (RuntimeException e) {
+      part.close();
+      throw e;
+    }
+    return part;
+  }
 
-    log.info("Waiting for all uploads to complete...");
-    CompletableFuture.allOf(uploadFutures.toArray(new CompletableFuture[0])).join();
-    log.info("All file uploads completed successfully.");
+  private UploadedFile upload(ImagePart part)
+      throws IOException, InterruptedException, ExecutionException {
+    // The key is the hash, so the part is read once to hash it and again only if it is not stored
+    // yet. Both passes read the local copy of the part, not the network.
+    part.inputStream().transferTo(OutputStream.nullOutputStream());
+    String sha256 = HexFormat.of().formatHex(part.digest().digest());
+    long size = part.file().getSize();
 
-    List<String> fileUrls =
-        uploadFutures.stream().map(CompletableFuture::join).collect(Collectors.toList());
+    String fileUrl = String.format("%s/%s/%s", s3StorageEndpoint, bucketName, sha256);
+    store(sha256, fileUrl, part.file());
 
-    log.info("Returning file URLs: {}", fileUrls);
-    return fileUrls;
+    return new UploadedFile(fileUrl, sha256, size);
   }
 
-  public void deleteFiles(List<String> imageUrls) {
-    if (imageUrls == null || imageUrls.isEmpty()) {
-      log.warn("No image URLs provided for deletion.");
+  // Objects are keyed by their SHA-256, so identical images are stored once. Concurrent uploads of
+  // the same content wait for the one already storing it instead of sending the bytes again. The
+  // lease is taken before the HEAD and keeps a deletion of the last property referencing the
+  // object from removing it until the new property is saved.
+  private void store(String key, String fileUrl, MultipartFile file)
+      throws IOException, InterruptedException, ExecutionException {
+    transactionTemplate.executeWithoutResult(
+        status -> propertyImageRepository.leaseImage(fileUrl));
+
+    CompletableFuture<Void> stored = new CompletableFuture<>();
+    CompletableFuture<Void> inProgress = storing.putIfAbsent(key, stored);
+    if (inProgress != null) {
+      log.debug("Identical file is already being stored under key: {}", key);
+      inProgress.get();
       return;
     }
 
-    log.info("Preparing to delete {} images from S3.", imageUrls.size());
-
-    List<ObjectIdentifier> objectsToDelete = imageUrls.stream()
-        .map(this::extractKeyFromUrl)
-        .map(key -> ObjectIdentifier.builder().key(key).build())
-        .collect(Collectors.toList());
+    try {
+      if (exists(key)) {
+        log.info("File with key {} is already stored, skipping upload", key);
+      } else {
+        putObject(key, file);
+      }
+      stored.complete(null);
+    } catch (IOException | InterruptedException | ExecutionException | RuntimeException e) {
+      stored.completeExceptionally(e);
+      throw e;
+    } finally {
+      storing.remove(key, stored);
+    }
+  }
 
-    log.info("Generated {} objects to delete from S3.", objectsToDelete.size());
+  // Without ListBucket permission S3 answers 403 for a missing key, which is treated as missing
+  private boolean exists(String key) throws InterruptedException, ExecutionException {
+    try {
+      s3AsyncClient.headObject(HeadObjectRequest.builder().bucket(bucketName).key(key).build())
+          .get();
+      return true;
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof S3Exception s3Exception
+          && (s3Exception.statusCode() == 404 || s3Exception.statusCode() == 403)) {
+        return false;
+      }
+      throw e;
+    }
+  }
 
-    DeleteObjectsRequest deleteObjectsRequest = DeleteObjectsRequest.builder()
-        .bucket(bucketName)
-        .delete(Delete.builder().objects(objectsToDelete).build())
-        .build();
+  // The upload thread feeds the part into the request body while the Netty event loop sends it,
+  // files above the part size are split into parallel multipart uploads by the client.
+  private void putObject(String key, MultipartFile file)
+      throws IOException, InterruptedException, ExecutionException {
+    log.debug("Starting upload to S3 for file: {}", file.getOriginalFilename());
+    BlockingInputStreamAsyncRequestBody requestBody =
+        AsyncRequestBody.forBlockingInputStream(file.getSize());
+    CompletableFuture<PutObjectResponse> response = s3AsyncClient.putObject(
+        PutObjectRequest.builder().bucket(bucketName).key(key).build(), requestBody);
+    try (InputStream inputStream = file.getInputStream()) {
+      requestBody.writeInputStream(inputStream);
+      response.get();
+    } catch (IOException | InterruptedException | RuntimeException e) {
+      response.cancel(true);
+      throw e;
+    }
+  }
 
-    s3Client.deleteObjects(deleteObjectsRequest);
-    log.info("Successfully requested deletion of {} objects from S3.", objectsToDelete.size());
+  private static MessageDigest sha256() {
+    try {
+      return MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
   }
 
-  private String extractKeyFromUrl(String url) {
-    return url.substring(url.lastIndexOf("/") + 1);
+  private record ImagePart(MultipartFile file, InputStream inputStream, MessageDigest digest)
+      implements AutoCloseable {
+    @Override
+    public void close() {
+      try {
+        inputStream.close();
+      } catch (IOException e) {
+        log.warn("Failed to close upload stream for file: {}", file.getOriginalFilename(), e);
+      }
+    }
   }
 }
@@ -0,0 +1,96 @@
+package org.apartment.benchmark;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.UUID;
+import java.util.function.Supplier;
+import lombok.extern.slf4j.Slf4j;
+import org.apartment.entity.UuidV7Generator;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+/**
+ * Compares insert throughput and primary key index size of random UUIDs stored as
+ * {@code VARCHAR(36)} against UUIDv7 stored as native {@code uuid}. Run with
+ * {@code -Dbenchmark=true -Dtest=IdStrategyInsertBenchmarkIntegrationTest}.
+ */
+@Slf4j
+@Testcontainers
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class IdStrategyInsertBenchmarkIntegrationTest {
+
+  private static final int ROWS = Integer.getInteger("benchmark.rows", 200_000);
+  private static final int BATCH_SIZE = 1_000;
+
+  @Container
+  public static PostgreSQLContainer<?> postgresContainer =
+      new PostgreSQLContainer<>("postgres:latest").withDatabaseName("test_real_estate_db")
+          .withUsername("test_admin").withPassword("test_admin");
+
+  @Test
+  public void testTimeOrderedUuidInsertThroughput() throws SQLException {
+    try (Connection connection = DriverManager.getConnection(
+        postgresContainer.getJdbcUrl() + "&reWriteBatchedInserts=true",
+        postgresContainer.getUsername(), postgresContainer.getPassword())) {
+      Result random = run(connection, "bench_random_varchar", "VARCHAR(36)", Types.VARCHAR,
+          () -> UUID.randomUUID().toString());
+      Result timeOrdered = run(connection, "bench_v7_uuid", "UUID", Types.OTHER,
+          UuidV7Generator::next);
+
+      log.info("random VARCHAR(36): {} rows/s, pkey {} kB", random.rowsPerSecond(),
+          random.indexSize() / 1024);
+      log.info("UUIDv7 uuid:        {} rows/s, pkey {} kB", timeOrdered.rowsPerSecond(),
+          timeOrdered.indexSize() / 1024);
+
+      assertThat(timeOrdered.indexSize()).isLessThan(random.indexSize());
+    }
+  }
+
+  private Result run(Connection connection, String table, String idType, int sqlType,
+                     Supplier<Object> ids) throws SQLException {
+    try (Statement statement = connection.createStatement()) {
+      statement.execute("DROP TABLE IF EXISTS " + table);
+      statement.execute("CREATE TABLE " + table + " (id " + idType
+          + " PRIMARY KEY, title VARCHAR(255) NOT NULL)");
+    }
+
+    connection.setAutoCommit(false);
+    long start = System.nanoTime();
+    try (PreparedStatement insert = connection.prepareStatement(
+        "INSERT INTO " + table + " (id, title) VALUES (?, ?)")) {
+      for (int i = 1; i <= ROWS; i++) {
+        insert.setObject(1, ids.get(), sqlType);
+        insert.setString(2, "Property " + i);
+        insert.addBatch();
+        if (i % BATCH_SIZE == 0) {
+          insert.executeBatch();
+          connection.commit();
+        }
+      }
+      insert.executeBatch();
+      connection.commit();
+    }
+    long elapsedNanos = System.nanoTime() - start;
+    connection.setAutoCommit(true);
+
+    try (Statement statement = connection.createStatement();
+         ResultSet resultSet = statement.executeQuery(
+             "SELECT pg_relation_size('" + table + "_pkey')")) {
+      resultSet.next();
+      return new Result(ROWS * 1_000_000_000L / elapsedNanos, resultSet.getLong(1));
+    }
+  }
+
+  private record Result(long rowsPerSecond, long indexSize) {
+  }
+}
@@ -0,0 +1,126 @@
+package org.apartment.benchmark;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import lombok.extern.slf4j.Slf4j;
+import org.apartment.config.S3Config;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.localstack.LocalStackContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.core.async.AsyncRequestBody;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+
+/**
+ * Compares upload throughput of the default synchronous {@link S3Client} driven by a thread pool
+ * against the pooled Netty {@link S3AsyncClient} from {@link S3Config}. Run with
+ * {@code -Dbenchmark=true -Dtest=S3ClientThroughputBenchmarkIntegrationTest}.
+ */
+@Slf4j
+@Testcontainers
+@SpringBootTest(classes = S3Config.class)
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class S3ClientThroughputBenchmarkIntegrationTest {
+
+  private static final int OBJECTS = Integer.getInteger("benchmark.objects", 2_000);
+  private static final int OBJECT_SIZE = Integer.getInteger("benchmark.object-size", 512 * 1024);
+  private static final int CONCURRENCY = 16;
+  private static final String BUCKET = "benchmark-bucket";
+
+  @Container
+  public static LocalStackContainer localstack =
+      new LocalStackContainer(DockerImageName.parse("localstack/localstack:latest")).withServices(
+          LocalStackContainer.Service.S3);
+
+  @Autowired
+  private S3AsyncClient s3AsyncClient;
+
+  private static S3Client s3Client;
+  private static byte[] payload;
+
+  @DynamicPropertySource
+  static void dynamicProperties(DynamicPropertyRegistry registry) {
+    registry.add("aws.s3.endpoint", () -> localstack.getEndpoint().toString());
+    registry.add("aws.s3.access-key", localstack::getAccessKey);
+    registry.add("aws.s3.secret-key", localstack::getSecretKey);
+    registry.add("aws.s3.region", localstack::getRegion);
+    registry.add("aws.s3.max-concurrency", () -> CONCURRENCY);
+    registry.add("aws.s3.max-pending-connection-acquires", () -> OBJECTS);
+  }
+
+  @BeforeAll
+  static void setUp() {
+    AwsBasicCredentials credentials =
+        AwsBasicCredentials.create(localstack.getAccessKey(), localstack.getSecretKey());
+    s3Client = S3Client.builder().region(Region.of(localstack.getRegion()))
+        .credentialsProvider(() -> credentials).endpointOverride(localstack.getEndpoint())
+        .serviceConfiguration(s3Config -> s3Config.pathStyleAccessEnabled(true)).build();
+    s3Client.createBucket(bucket -> bucket.bucket(BUCKET));
+
+    payload = new byte[OBJECT_SIZE];
+    new Random(42).nextBytes(payload);
+  }
+
+  @Test
+  public void testAsyncClientThroughput() throws Exception {
+    // Warm up connections and JIT for both clients before measuring
+    syncUploads("warmup-sync", OBJECTS / 10);
+    asyncUploads("warmup-async", OBJECTS / 10);
+
+    double sync = syncUploads("sync", OBJECTS);
+    double async = asyncUploads("async", OBJECTS);
+
+    log.info("sync S3Client ({} threads): {} objects/s, {} MB/s", CONCURRENCY,
+        Math.round(sync), Math.round(sync * OBJECT_SIZE / (1024 * 1024)));
+    log.info("async S3AsyncClient (Netty): {} objects/s, {} MB/s",
+        Math.round(async), Math.round(async * OBJECT_SIZE / (1024 * 1024)));
+
+    assertThat(s3AsyncClient.listObjectsV2(list -> list.bucket(BUCKET).prefix("async/")).join()
+        .keyCount()).isPositive();
+  }
+
+  private double syncUploads(String prefix, int objects) throws Exception {
+    long start = System.nanoTime();
+    try (ExecutorService executor = Executors.newFixedThreadPool(CONCURRENCY)) {
+      List<CompletableFuture<Void>> uploads = new ArrayList<>(objects);
+      for (int i = 0; i < objects; i++) {
+        String key = prefix + "/" + i;
+        uploads.add(CompletableFuture.runAsync(() -> s3Client.putObject(
+            PutObjectRequest.builder().bucket(BUCKET).key(key).build(),
+            RequestBody.fromBytes(payload)), executor));
+      }
+      CompletableFuture.allOf(uploads.toArray(new CompletableFuture[0])).get();
+    }
+    return objects * 1_000_000_000.0 / (System.nanoTime() - start);
+  }
+
+  private double asyncUploads(String prefix, int objects) throws Exception {
+    long start = System.nanoTime();
+    List<CompletableFuture<?>> uploads = new ArrayList<>(objects);
+    for (int i = 0; i < objects; i++) {
+      uploads.add(s3AsyncClient.putObject(
+          PutObjectRequest.builder().bucket(BUCKET).key(prefix + "/" + i).build(),
+          AsyncRequestBody.fromBytes(payload)));
+    }
+    CompletableFuture.allOf(uploads.toArray(new CompletableFuture[0])).get();
+    return objects * 1_000_000_000.0 / (System.nanoTime() - start);
+  }
+}
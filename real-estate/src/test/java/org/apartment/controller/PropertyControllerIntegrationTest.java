@@ -3,20 +3,30 @@ package org.apartment.controller;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import jakarta.persistence.EntityManagerFactory;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.UUID;
+import org.apartment.config.CacheConfig;
 import org.apartment.dto.PropertyDto;
+import org.apartment.dto.PropertyFeedDto;
+import org.apartment.service.PropertyService;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
 import org.springframework.mock.web.MockHttpServletResponse;
 import org.springframework.test.context.DynamicPropertyRegistry;
 import org.springframework.test.context.DynamicPropertySource;
@@ -38,6 +48,15 @@ public class PropertyControllerIntegrationTest {
   @Autowired
   private MockMvc mockMvc;
 
+  @Autowired
+  private EntityManagerFactory entityManagerFactory;
+
+  @Autowired
+  private CacheManager cacheManager;
+
+  @Autowired
+  private PropertyService propertyService;
+
   @Container
   public static PostgreSQLContainer<?> postgresContainer =
       new PostgreSQLContainer<>("postgres:latest").withDatabaseName("test_real_estate_db")
@@ -68,7 +87,7 @@ public class PropertyControllerIntegrationTest {
 
     assertThat(properties, hasSize(2));
     assertThat(properties.get(0).getTitle(), is("Beautiful House in City Center"));
-    assertThat(properties.get(1).getTitle(), is("Luxury Apartment"));
+    assertThat(properties.get(1).getTitle(), is("Downtown Office Space"));
   }
 
   @Test
@@ -81,10 +100,64 @@ public class PropertyControllerIntegrationTest {
     List<PropertyDto> properties = getResponsePageDTO(response);
 
     assertThat(properties, hasSize(2));
-    assertThat(properties.get(0).getTitle(), is("Cozy Studio in Suburbs"));
+    assertThat(properties.get(0).getTitle(), is("Luxury Apartment"));
     assertThat(properties.get(1).getTitle(), is("Beachfront Villa"));
   }
 
+  @Test
+  public void testGetPropertiesPageIsStableAndSingleQuery() throws Exception {
+    Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+    List<String> firstTitles = null;
+    for (int i = 0; i < 3; i++) {
+      clearPropertiesCache();
+      statistics.clear();
+      MvcResult result =
+          mockMvc.perform(get(API_URL + "?page=0&size=3")).andExpect(status().isOk())
+              .andReturn();
+      List<PropertyDto> properties = getResponsePageDTO(result.getResponse());
+
+      assertThat(statistics.getPrepareStatementCount(), is(2L));
+      assertThat(properties, hasSize(3));
+      assertThat(properties.get(0).getImages(), hasSize(2));
+
+      List<String> titles = properties.stream().map(PropertyDto::getTitle).toList();
+      if (firstTitles == null) {
+        firstTitles = titles;
+      }
+      assertThat(titles, is(firstTitles));
+    }
+
+    clearPropertiesCache();
+    statistics.clear();
+    mockMvc.perform(get(API_URL + "?cursor=&size=3")).andExpect(status().isOk());
+    assertThat(statistics.getPrepareStatementCount(), is(1L));
+  }
+
+  @Test
+  public void testGetPropertiesIsServedFromCache() throws Exception {
+    Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    clearPropertiesCache();
+
+    statistics.clear();
+    mockMvc.perform(get(API_URL + "?page=0&size=4")).andExpect(status().isOk());
+    assertThat(statistics.getPrepareStatementCount(), is(2L));
+
+    statistics.clear();
+    List<PropertyDto> properties = getResponsePageDTO(
+        mockMvc.perform(get(API_URL + "?page=0&size=4")).andExpect(status().isOk()).andReturn()
+            .getResponse());
+    assertThat(statistics.getPrepareStatementCount(), is(0L));
+    assertThat(properties, hasSize(4));
+
+    propertyService.deleteProperties(List.of(UUID.randomUUID().toString()), () -> {
+    });
+
+    statistics.clear();
+    mockMvc.perform(get(API_URL + "?page=0&size=4")).andExpect(status().isOk());
+    assertThat(statistics.getPrepareStatementCount(), is(0L));
+  }
+
   @Test
   public void testGetNonExistentPage() throws Exception {
     MvcResult result = mockMvc.perform(get(API_URL + "?page=10&size=2"))
@@ -96,6 +169,48 @@ public class PropertyControllerIntegrationTest {
     assertThat(properties, hasSize(0));
   }
 
+  @Test
+  public void testGetPropertiesByCursor() throws Exception {
+    MvcResult firstResult =
+        mockMvc.perform(get(API_URL + "?cursor=&size=2")).andExpect(status().isOk())
+            .andReturn();
+    PropertyFeedDto firstPage = objectMapper.readValue(
+        firstResult.getResponse().getContentAsString(), PropertyFeedDto.class);
+
+    assertThat(firstPage.getContent(), hasSize(2));
+    assertThat(firstPage.getContent().get(0).getTitle(), is("Beautiful House in City Center"));
+    assertThat(firstPage.getContent().get(1).getTitle(), is("Downtown Office Space"));
+    assertThat(firstPage.getNextCursor(), notNullValue());
+    assertThat(firstPage.getTotalElements(), nullValue());
+
+    MvcResult secondResult = mockMvc.perform(
+            get(API_URL + "?cursor=" + firstPage.getNextCursor() + "&size=2&withCount=true"))
+        .andExpect(status().isOk()).andReturn();
+    PropertyFeedDto secondPage = objectMapper.readValue(
+        secondResult.getResponse().getContentAsString(), PropertyFeedDto.class);
+
+    assertThat(secondPage.getContent(), hasSize(2));
+    assertThat(secondPage.getContent().get(0).getTitle(), is("Luxury Apartment"));
+    assertThat(secondPage.getContent().get(1).getTitle(), is("Beachfront Villa"));
+    assertThat(secondPage.getTotalElements(), is(5L));
+  }
+
+  @Test
+  public void testGetPropertiesByInvalidCursor() throws Exception {
+    mockMvc.perform(get(API_URL + "?cursor=invalid&size=2")).andExpect(status().isBadRequest());
+  }
+
+  @Test
+  public void testGetPropertiesByCursorWithInvalidSize() throws Exception {
+    mockMvc.perform(get(API_URL + "?cursor=&size=0")).andExpect(status().isBadRequest());
+    mockMvc.perform(get(API_URL + "?cursor=&size=-1")).andExpect(status().isBadRequest());
+    mockMvc.perform(get(API_URL + "?cursor=&size=101")).andExpect(status().isBadRequest());
+  }
+
+  private void clearPropertiesCache() {
+    cacheManager.getCache(CacheConfig.PROPERTIES_CACHE).clear();
+  }
+
   private List<PropertyDto> getResponsePageDTO(MockHttpServletResponse response)
       throws IOException {
     String responseBody = response.getContentAsString();
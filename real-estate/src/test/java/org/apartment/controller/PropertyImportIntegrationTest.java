@@ -0,0 +1,183 @@
+package org.apartment.controller;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import org.apartment.config.CacheConfig;
+import org.apartment.dto.PropertyImportResultDto;
+import org.apartment.entity.Property;
+import org.apartment.repository.PropertyRepository;
+import org.apartment.service.PropertyImportService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
+import software.amazon.awssdk.services.s3.model.HeadObjectRequest;
+import software.amazon.awssdk.services.s3.model.HeadObjectResponse;
+import software.amazon.awssdk.services.s3.model.S3Exception;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@Testcontainers
+public class PropertyImportIntegrationTest {
+
+  private static final String API_URL = "/api/v1/property/import";
+  private static final String BUCKET_URL = "http://localhost:4566/test-bucket/";
+  private static final String STORED_KEY = "a".repeat(64);
+  private static final String STORED_URL = BUCKET_URL + STORED_KEY;
+  private static final String MISSING_URL = BUCKET_URL + "b".repeat(64);
+
+  @Autowired
+  private MockMvc mockMvc;
+
+  @Autowired
+  private PropertyRepository propertyRepository;
+
+  @Autowired
+  private TransactionTemplate transactionTemplate;
+
+  @Autowired
+  private PropertyImportService propertyImportService;
+
+  @Autowired
+  private CacheManager cacheManager;
+
+  @MockitoBean
+  private S3AsyncClient s3AsyncClient;
+
+  @Container
+  public static PostgreSQLContainer<?> postgresContainer =
+      new PostgreSQLContainer<>("postgres:latest").withDatabaseName("test_real_estate_db")
+          .withUsername("test_admin").withPassword("test_admin");
+
+  private final ObjectMapper objectMapper = new ObjectMapper();
+
+  @DynamicPropertySource
+  static void dynamicProperties(DynamicPropertyRegistry registry) {
+    registry.add("spring.datasource.url", postgresContainer::getJdbcUrl);
+    registry.add("spring.datasource.username", postgresContainer::getUsername);
+    registry.add("spring.datasource.password", postgresContainer::getPassword);
+  }
+
+  @Test
+  public void testImportProperties() throws Exception {
+    when(s3AsyncClient.headObject(any(HeadObjectRequest.class))).thenAnswer(invocation ->
+        invocation.<HeadObjectRequest>getArgument(0).key().equals(STORED_KEY)
+            ? CompletableFuture.completedFuture(HeadObjectResponse.builder().build())
+            : CompletableFuture.failedFuture(
+                S3Exception.builder().statusCode(404).message("Not Found").build()));
+    String body = String.join("\n",
+        property("Imported Loft", STORED_URL),
+        property("Imported Cottage", null),
+        "{not json",
+        "",
+        "{\"title\":\"\",\"type\":\"HOUSE\",\"propertyDealType\":\"SALE\",\"price\":100,"
+            + "\"city\":\"Oslo\",\"status\":\"AVAILABLE\"}",
+        property("Imported Barn", "http://elsewhere/barn.jpg"),
+        property("Imported Shed", BUCKET_URL + "shed.jpg"),
+        property("Imported Attic", MISSING_URL),
+        property("Imported Flat", null));
+
+    List<PropertyImportResultDto> results = importBody(body);
+
+    assertThat(results, hasSize(8));
+    assertThat(results.get(0).getLine(), is(1L));
+    assertThat(results.get(0).getId(), notNullValue());
+    assertThat(results.get(0).getError(), nullValue());
+    assertThat(results.get(1).getId(), notNullValue());
+    assertThat(results.get(1).getLine(), is(2L));
+
+    List<PropertyImportResultDto> failed =
+        results.stream().filter(result -> result.getError() != null).toList();
+    assertThat(failed, hasSize(5));
+    assertThat(failed.get(0).getLine(), is(3L));
+    assertThat(failed.get(1).getLine(), is(5L));
+    assertThat(failed.get(1).getError(), is("Title is required"));
+    for (int i = 2; i < failed.size(); i++) {
+      assertThat(failed.get(i).getLine(), is(i + 4L));
+      assertThat(failed.get(i).getError(), is("Image must reference an uploaded object"));
+    }
+
+    PropertyImportResultDto flat = results.get(results.size() - 1);
+    assertThat(flat.getLine(), is(9L));
+    assertThat(flat.getId(), notNullValue());
+
+    transactionTemplate.executeWithoutResult(status -> {
+      Property loft = propertyRepository.findById(results.get(0).getId()).orElseThrow();
+      assertThat(loft.getTitle(), is("Imported Loft"));
+      assertThat(loft.getPostedBy(), is("importer"));
+      assertThat(loft.getImages(), hasSize(1));
+      assertThat(loft.getImages().get(0).getImageUrl(), is(STORED_URL));
+    });
+  }
+
+  @Test
+  public void testImportEvictsCachesForCommittedChunksWhenStreamFails() {
+    Cache propertiesCache = cacheManager.getCache(CacheConfig.PROPERTIES_CACHE);
+    propertiesCache.put("stale", "stale");
+    // One full chunk is committed before the stream fails
+    String chunk = property("Chunk House", null) + "\n" + property("Chunk Villa", null) + "\n";
+    InputStream input = new SequenceInputStream(
+        new ByteArrayInputStream(chunk.getBytes(StandardCharsets.UTF_8)), new InputStream() {
+          @Override
+          public int read() throws IOException {
+            throw new IOException("Connection reset");
+          }
+        });
+
+    assertThrows(IOException.class, () -> propertyImportService.importProperties(input,
+        new ByteArrayOutputStream(), "importer"));
+
+    assertThat(propertiesCache.get("stale"), nullValue());
+  }
+
+  private List<PropertyImportResultDto> importBody(String body) throws Exception {
+    MvcResult result = mockMvc.perform(
+            post(API_URL).contentType(MediaType.APPLICATION_NDJSON).header("X-User-Id", "importer")
+                .content(body)).andExpect(status().isOk()).andReturn();
+
+    List<PropertyImportResultDto> results = new ArrayList<>();
+    for (String line : result.getResponse().getContentAsString().split("\n")) {
+      results.add(objectMapper.readValue(line, PropertyImportResultDto.class));
+    }
+    return results;
+  }
+
+  private String property(String title, String imageUrl) {
+    String images = imageUrl == null ? "[]" : "[{\"imageUrl\":\"" + imageUrl + "\"}]";
+    return "{\"title\":\"" + title + "\",\"description\":\"Imported\",\"type\":\"HOUSE\","
+        + "\"propertyDealType\":\"SALE\",\"price\":250000,\"city\":\"Oslo\","
+        + "\"status\":\"AVAILABLE\",\"images\":" + images + "}";
+  }
+}
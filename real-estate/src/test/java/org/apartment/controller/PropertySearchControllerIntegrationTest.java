@@ -6,19 +6,26 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import org.apartment.config.CacheConfig;
 import org.apartment.dto.PropertyDto;
 import org.apartment.dto.PropertySearchDto;
+import org.apartment.dto.PropertySearchResultDto;
 import org.apartment.entity.Property;
 import org.apartment.entity.PropertyDealType;
+import org.apartment.entity.PropertyImage;
 import org.apartment.entity.PropertyStatus;
 import org.apartment.entity.PropertyType;
 import org.apartment.repository.PropertyRepository;
+import org.hibernate.SessionFactory;
 import org.hibernate.search.mapper.orm.Search;
 import org.hibernate.search.mapper.orm.session.SearchSession;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
@@ -26,6 +33,7 @@ import org.junit.jupiter.api.TestInstance;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.DynamicPropertyRegistry;
 import org.springframework.test.context.DynamicPropertySource;
@@ -53,6 +61,12 @@ public class PropertySearchControllerIntegrationTest {
   @Autowired
   private PropertyRepository propertyRepository;
 
+  @Autowired
+  private EntityManagerFactory entityManagerFactory;
+
+  @Autowired
+  private CacheManager cacheManager;
+
   @Container
   public static PostgreSQLContainer<?> postgresContainer =
       new PostgreSQLContainer<>("postgres:latest").withDatabaseName("test_real_estate_db")
@@ -95,8 +109,8 @@ public class PropertySearchControllerIntegrationTest {
         mockMvc.perform(get(API_URL).contentType(MediaType.APPLICATION_JSON).content(json))
             .andExpect(status().isOk()).andReturn().getResponse().getContentAsString();
 
-    List<PropertyDto> properties = objectMapper.readValue(response,
-        objectMapper.getTypeFactory().constructCollectionType(List.class, PropertyDto.class));
+    List<PropertyDto> properties =
+        objectMapper.readValue(response, PropertySearchResultDto.class).getContent();
 
     Assertions.assertEquals(2, properties.size());
     Assertions.assertEquals(PropertyStatus.SOLD, properties.get(0).getStatus());
@@ -113,11 +127,62 @@ public class PropertySearchControllerIntegrationTest {
         mockMvc.perform(get(API_URL).contentType(MediaType.APPLICATION_JSON).content(json))
             .andExpect(status().isOk()).andReturn().getResponse().getContentAsString();
 
-    List<PropertyDto> properties = objectMapper.readValue(response,
-        objectMapper.getTypeFactory().constructCollectionType(List.class, PropertyDto.class));
+    List<PropertyDto> properties =
+        objectMapper.readValue(response, PropertySearchResultDto.class).getContent();
 
     Assertions.assertEquals(1, properties.size());
     Assertions.assertEquals(city, properties.get(0).getCity());
+    Assertions.assertEquals(2, properties.get(0).getImages().size());
+  }
+
+  @Test
+  public void testSearchPropertiesReturnsTotalAndFacets() throws Exception {
+    PropertySearchDto searchDto = new PropertySearchDto();
+    searchDto.setStatus(PropertyStatus.SOLD.name());
+
+    String json = objectMapper.writeValueAsString(searchDto);
+
+    String response = mockMvc.perform(
+            get(API_URL + "?size=1").contentType(MediaType.APPLICATION_JSON).content(json))
+        .andExpect(status().isOk()).andReturn().getResponse().getContentAsString();
+
+    PropertySearchResultDto result = objectMapper.readValue(response, PropertySearchResultDto.class);
+
+    Assertions.assertEquals(1, result.getContent().size());
+    Assertions.assertEquals(2, result.getTotalElements());
+    Assertions.assertEquals(2, result.getTotalPages());
+    Assertions.assertTrue(result.isFirst());
+    Assertions.assertFalse(result.isLast());
+
+    Map<String, Map<String, Long>> facets = result.getFacets();
+    Assertions.assertEquals(Map.of("Los Angeles", 1L, "San Francisco", 1L), facets.get("city"));
+    Assertions.assertEquals(Map.of("CONDO", 2L), facets.get("type"));
+    Assertions.assertEquals(Map.of("SALE", 2L), facets.get("propertyDealType"));
+    Assertions.assertEquals(Map.of("SOLD", 2L), facets.get("status"));
+    Assertions.assertEquals(2L, facets.get("price").get("500000-1000000"));
+    Assertions.assertEquals(0L, facets.get("price").get("*-100000"));
+  }
+
+  @Test
+  public void testSearchPropertiesDoesNotQueryDatabase() throws Exception {
+    Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    cacheManager.getCache(CacheConfig.PROPERTY_SEARCH_CACHE).clear();
+    PropertySearchDto searchDto = PropertySearchDto.builder().city("Chicago").build();
+    String json = objectMapper.writeValueAsString(searchDto);
+
+    statistics.clear();
+    String response =
+        mockMvc.perform(get(API_URL).contentType(MediaType.APPLICATION_JSON).content(json))
+            .andExpect(status().isOk()).andReturn().getResponse().getContentAsString();
+
+    List<PropertyDto> properties =
+        objectMapper.readValue(response, PropertySearchResultDto.class).getContent();
+
+    Assertions.assertEquals(1, properties.size());
+    Assertions.assertEquals("Cozy Studio in Suburbs", properties.get(0).getTitle());
+    Assertions.assertEquals("125", properties.get(0).getPostedBy());
+    Assertions.assertEquals(0, statistics.getPrepareStatementCount());
+    Assertions.assertEquals(0, statistics.getEntityLoadCount());
   }
 
   @Test
@@ -132,8 +197,8 @@ public class PropertySearchControllerIntegrationTest {
         mockMvc.perform(get(API_URL).contentType(MediaType.APPLICATION_JSON).content(json))
             .andExpect(status().isOk()).andReturn().getResponse().getContentAsString();
 
-    List<PropertyDto> properties = objectMapper.readValue(response,
-        objectMapper.getTypeFactory().constructCollectionType(List.class, PropertyDto.class));
+    List<PropertyDto> properties =
+        objectMapper.readValue(response, PropertySearchResultDto.class).getContent();
 
     Assertions.assertEquals(2, properties.size());
     Assertions.assertTrue(properties.stream().anyMatch(
@@ -152,8 +217,8 @@ public class PropertySearchControllerIntegrationTest {
         mockMvc.perform(get(API_URL).contentType(MediaType.APPLICATION_JSON).content(json))
             .andExpect(status().isOk()).andReturn().getResponse().getContentAsString();
 
-    List<PropertyDto> properties = objectMapper.readValue(response,
-        objectMapper.getTypeFactory().constructCollectionType(List.class, PropertyDto.class));
+    List<PropertyDto> properties =
+        objectMapper.readValue(response, PropertySearchResultDto.class).getContent();
 
     Assertions.assertEquals(5, properties.size());
   }
@@ -169,8 +234,8 @@ public class PropertySearchControllerIntegrationTest {
         mockMvc.perform(get(API_URL).contentType(MediaType.APPLICATION_JSON).content(json))
             .andExpect(status().isOk()).andReturn().getResponse().getContentAsString();
 
-    List<PropertyDto> properties = objectMapper.readValue(response,
-        objectMapper.getTypeFactory().constructCollectionType(List.class, PropertyDto.class));
+    List<PropertyDto> properties =
+        objectMapper.readValue(response, PropertySearchResultDto.class).getContent();
 
     Assertions.assertEquals(1, properties.size());
     Assertions.assertTrue(properties.stream().anyMatch(
@@ -188,8 +253,8 @@ public class PropertySearchControllerIntegrationTest {
         mockMvc.perform(get(API_URL).contentType(MediaType.APPLICATION_JSON).content(json))
             .andExpect(status().isOk()).andReturn().getResponse().getContentAsString();
 
-    List<PropertyDto> properties = objectMapper.readValue(response,
-        objectMapper.getTypeFactory().constructCollectionType(List.class, PropertyDto.class));
+    List<PropertyDto> properties =
+        objectMapper.readValue(response, PropertySearchResultDto.class).getContent();
     Assertions.assertTrue(
         properties.stream().allMatch(p -> p.getPropertyDealType().equals(PropertyDealType.RENT)));
   }
@@ -217,8 +282,8 @@ public class PropertySearchControllerIntegrationTest {
         mockMvc.perform(get(API_URL).contentType(MediaType.APPLICATION_JSON).content(json))
             .andExpect(status().isOk()).andReturn().getResponse().getContentAsString();
 
-    List<PropertyDto> properties = objectMapper.readValue(response,
-        objectMapper.getTypeFactory().constructCollectionType(List.class, PropertyDto.class));
+    List<PropertyDto> properties =
+        objectMapper.readValue(response, PropertySearchResultDto.class).getContent();
 
     Assertions.assertEquals(1, properties.size());
     Assertions.assertTrue(properties.stream().anyMatch(
@@ -227,4 +292,26 @@ public class PropertySearchControllerIntegrationTest {
     Assertions.assertTrue(
         properties.stream().anyMatch(p -> p.getPrice().compareTo(targetPrice) == 0));
   }
-}
\ No newline at end of file
+
+  @Test
+  public void testSearchPropertiesProjectsImageVariants() throws Exception {
+    PropertySearchDto searchDto =
+        PropertySearchDto.builder().city("New York").propertyType(PropertyType.APARTMENT).build();
+    String json = objectMapper.writeValueAsString(searchDto);
+
+    String response =
+        mockMvc.perform(get(API_URL).contentType(MediaType.APPLICATION_JSON).content(json))
+            .andExpect(status().isOk()).andReturn().getResponse().getContentAsString();
+
+    List<PropertyDto> properties =
+        objectMapper.readValue(response, PropertySearchResultDto.class).getContent();
+
+    Assertions.assertEquals(1, properties.size());
+    PropertyImage image = properties.get(0).getImages().stream()
+        .filter(i -> i.getImageUrl().endsWith("/house-front")).findFirst().orElseThrow();
+    Assertions.assertEquals(UUID.fromString("0b6f3b0e-2f1c-4b4e-9d3a-5a1f6c2e7d01"),
+        image.getId());
+    Assertions.assertEquals(Map.of(320, "http://localhost:4566/test-bucket/house-front-320"),
+        image.getVariants());
+  }
+}
@@ -0,0 +1,36 @@
+package org.apartment.dto;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.LocalDate;
+import java.util.UUID;
+import org.apartment.exception.InvalidCursorException;
+import org.junit.jupiter.api.Test;
+
+public class PropertyCursorTest {
+
+  @Test
+  public void testEncodeDecodeRoundTrip() {
+    PropertyCursor cursor =
+        new PropertyCursor(LocalDate.of(2024, 12, 11), UUID.randomUUID());
+
+    PropertyCursor decoded = PropertyCursor.decode(cursor.encode());
+
+    assertThat(decoded).isEqualTo(cursor);
+  }
+
+  @Test
+  public void testEncodedCursorIsUrlSafe() {
+    PropertyCursor cursor =
+        new PropertyCursor(LocalDate.of(2024, 12, 11), UUID.randomUUID());
+
+    assertThat(cursor.encode()).matches("[A-Za-z0-9_-]+");
+  }
+
+  @Test
+  public void testDecodeMalformedCursor() {
+    assertThrows(InvalidCursorException.class, () -> PropertyCursor.decode("not a cursor"));
+    assertThrows(InvalidCursorException.class, () -> PropertyCursor.decode("bm8tc2VwYXJhdG9y"));
+  }
+}
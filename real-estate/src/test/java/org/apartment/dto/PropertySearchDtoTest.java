@@ -0,0 +1,29 @@
+package org.apartment.dto;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import org.apartment.entity.PropertyType;
+import org.junit.jupiter.api.Test;
+
+public class PropertySearchDtoTest {
+
+  @Test
+  public void testNormalizedEqualForEquivalentSearches() {
+    PropertySearchDto first = PropertySearchDto.builder().keyword("  Modern ").city("New York")
+        .minPrice(new BigDecimal("100000")).propertyType(PropertyType.CONDO).build();
+    PropertySearchDto second = PropertySearchDto.builder().keyword("modern").city(" new york")
+        .minPrice(new BigDecimal("100000.00")).propertyType(PropertyType.CONDO).build();
+
+    assertThat(first.normalized()).isEqualTo(second.normalized());
+    assertThat(first.normalized().hashCode()).isEqualTo(second.normalized().hashCode());
+  }
+
+  @Test
+  public void testNormalizedDiffersForDifferentSearches() {
+    PropertySearchDto first = PropertySearchDto.builder().city("Miami").build();
+    PropertySearchDto second = PropertySearchDto.builder().city("Chicago").build();
+
+    assertThat(first.normalized()).isNotEqualTo(second.normalized());
+  }
+}
@@ -0,0 +1,32 @@
+package org.apartment.entity;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+
+public class UuidV7GeneratorTest {
+
+  @Test
+  public void testGeneratesVersion7Uuid() {
+    long before = System.currentTimeMillis();
+    UUID uuid = UuidV7Generator.next();
+
+    assertThat(uuid.version()).isEqualTo(7);
+    assertThat(uuid.variant()).isEqualTo(2);
+    assertThat(uuid.getMostSignificantBits() >>> 16).isGreaterThanOrEqualTo(before);
+  }
+
+  @Test
+  public void testGeneratedUuidsAreOrdered() {
+    List<UUID> uuids = new ArrayList<>();
+    for (int i = 0; i < 10_000; i++) {
+      uuids.add(UuidV7Generator.next());
+    }
+
+    List<String> asText = uuids.stream().map(UUID::toString).toList();
+    assertThat(asText).isSorted().doesNotHaveDuplicates();
+  }
+}
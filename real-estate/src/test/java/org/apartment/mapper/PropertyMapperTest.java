@@ -16,7 +16,7 @@ public class PropertyMapperTest {
 
   @Test
   public void testToDto() {
-    Property property = Property.builder().id(UUID.randomUUID().toString()).title("Apartment").description("Test text")
+    Property property = Property.builder().id(UUID.randomUUID()).title("Apartment").description("Test text")
         .type(PropertyType.APARTMENT).price(BigDecimal.valueOf(1000000)).city("Msk")
         .status(PropertyStatus.AVAILABLE).postedBy(UUID.randomUUID().toString()).createdAt(LocalDate.now())
         .updatedAt(LocalDate.now()).build();
@@ -0,0 +1,116 @@
+package org.apartment.service;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.awt.image.BufferedImage;
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import javax.imageio.ImageIO;
+import org.apartment.exception.ImageDimensionsExceededException;
+import org.apartment.exception.InvalidImageFileException;
+import org.junit.jupiter.api.Test;
+
+class FileValidationServiceTest {
+  private final FileValidationService fileValidationService = new FileValidationService();
+
+  @Test
+  void testValidJpeg() throws IOException {
+    InputStream inputStream = new BufferedInputStream(new ByteArrayInputStream(jpeg(64, 48)));
+
+    assertDoesNotThrow(() -> fileValidationService.validateImageHeader(inputStream));
+  }
+
+  @Test
+  void testValidationStopsAtScanHeader() throws IOException {
+    byte[] content = jpeg(64, 48);
+    InputStream inputStream = new BufferedInputStream(new ByteArrayInputStream(content));
+
+    fileValidationService.validateImageHeader(inputStream);
+
+    byte[] remaining = inputStream.readAllBytes();
+    assertTrue(remaining.length > 0);
+    assertArrayEquals(remaining,
+        Arrays.copyOfRange(content, content.length - remaining.length, content.length));
+  }
+
+  @Test
+  void testLargeApplicationSegmentsBeforeFrameHeader() throws IOException {
+    byte[] content = jpeg(64, 48);
+    ByteArrayOutputStream withMetadata = new ByteArrayOutputStream();
+    withMetadata.write(content, 0, 2);
+    withMetadata.write(segment(0xE1, 60_000));
+    withMetadata.write(segment(0xE2, 40_000));
+    withMetadata.write(content, 2, content.length - 2);
+
+    assertDoesNotThrow(() -> validate(withMetadata.toByteArray()));
+  }
+
+  @Test
+  void testPngWithJpegExtension() throws IOException {
+    BufferedImage image = new BufferedImage(64, 48, BufferedImage.TYPE_INT_RGB);
+    ByteArrayOutputStream png = new ByteArrayOutputStream();
+    ImageIO.write(image, "png", png);
+    assertThrows(InvalidImageFileException.class, () -> validate(png.toByteArray()));
+  }
+
+  @Test
+  void testTruncatedJpegHeader() throws IOException {
+    byte[] header = Arrays.copyOf(jpeg(64, 48), 20);
+    assertThrows(InvalidImageFileException.class, () -> validate(header));
+  }
+
+  @Test
+  void testImageWiderThanAllowed() throws IOException {
+    byte[] content = withFrameSize(jpeg(64, 48), 12_000, 100);
+    assertThrows(ImageDimensionsExceededException.class, () -> validate(content));
+  }
+
+  @Test
+  void testImageWithTooManyPixels() throws IOException {
+    byte[] content = withFrameSize(jpeg(64, 48), 8_000, 6_000);
+    assertThrows(ImageDimensionsExceededException.class, () -> validate(content));
+  }
+
+  private void validate(byte[] content) {
+    fileValidationService.validateImageHeader(
+        new BufferedInputStream(new ByteArrayInputStream(content)));
+  }
+
+  private static byte[] jpeg(int width, int height) throws IOException {
+    BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+    ImageIO.write(image, "jpeg", output);
+    return output.toByteArray();
+  }
+
+  private static byte[] segment(int marker, int length) {
+    byte[] segment = new byte[length + 2];
+    segment[0] = (byte) 0xFF;
+    segment[1] = (byte) marker;
+    segment[2] = (byte) (length >> 8);
+    segment[3] = (byte) length;
+    return segment;
+  }
+
+  // Rewrites the SOF0 frame header so the file claims dimensions its pixel data does not have.
+  private static byte[] withFrameSize(byte[] jpeg, int width, int height) {
+    byte[] content = jpeg.clone();
+    for (int i = 2; i < content.length - 8; i++) {
+      if ((content[i] & 0xFF) == 0xFF && (content[i + 1] & 0xFF) == 0xC0) {
+        content[i + 5] = (byte) (height >> 8);
+        content[i + 6] = (byte) height;
+        content[i + 7] = (byte) (width >> 8);
+        content[i + 8] = (byte) width;
+        return content;
+      }
+    }
+    throw new IllegalArgumentException("No SOF0 marker");
+  }
+}
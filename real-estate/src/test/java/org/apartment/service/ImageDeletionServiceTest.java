@@ -0,0 +1,160 @@
+package org.apartment.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+import org.apartment.exception.FileDeletionException;
+import org.apartment.repository.PropertyImageRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import software.amazon.awssdk.core.exception.SdkClientException;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
+import software.amazon.awssdk.services.s3.model.DeleteObjectsRequest;
+import software.amazon.awssdk.services.s3.model.DeleteObjectsResponse;
+import software.amazon.awssdk.services.s3.model.ObjectIdentifier;
+import software.amazon.awssdk.services.s3.model.S3Error;
+
+class ImageDeletionServiceTest {
+  private static final String URL_PREFIX = "http://localhost:9000/test-bucket/";
+
+  @Mock
+  private S3AsyncClient s3AsyncClient;
+
+  @Mock
+  private KafkaTemplate<String, String> kafkaTemplate;
+
+  @Mock
+  private PropertyImageRepository propertyImageRepository;
+
+  private ImageDeletionService imageDeletionService;
+  private MeterRegistry meterRegistry;
+  private final Queue<List<String>> requests = new ConcurrentLinkedQueue<>();
+  private final Map<String, AtomicInteger> failuresLeft = new ConcurrentHashMap<>();
+
+  @BeforeEach
+  @SuppressWarnings("unchecked")
+  void setUp() {
+    MockitoAnnotations.openMocks(this);
+    meterRegistry = new SimpleMeterRegistry();
+    imageDeletionService = new ImageDeletionService(s3AsyncClient, "test-bucket", kafkaTemplate,
+        new ObjectMapper(), propertyImageRepository,
+        new TransactionTemplate(mock(PlatformTransactionManager.class)), Duration.ofMinutes(15),
+        2, 2, 2, Duration.ofMillis(1), meterRegistry);
+    when(propertyImageRepository.lockUnusedFiles(any(String[].class), any()))
+        .thenAnswer(invocation -> List.of(invocation.<String[]>getArgument(0)));
+
+    when(s3AsyncClient.deleteObjects(any(Consumer.class))).thenAnswer(invocation -> {
+      DeleteObjectsRequest.Builder request = DeleteObjectsRequest.builder();
+      invocation.<Consumer<DeleteObjectsRequest.Builder>>getArgument(0).accept(request);
+      List<String> keys =
+          request.build().delete().objects().stream().map(ObjectIdentifier::key).toList();
+      requests.add(keys);
+
+      if (failuresLeft.containsKey("*") && failuresLeft.get("*").getAndDecrement() > 0) {
+        return CompletableFuture.failedFuture(SdkClientException.create("Connection reset"));
+      }
+      List<S3Error> errors = keys.stream()
+          .filter(key -> failuresLeft.containsKey(key)
+              && failuresLeft.get(key).getAndDecrement() > 0)
+          .map(key -> S3Error.builder().key(key).code("InternalError").build()).toList();
+      return CompletableFuture.completedFuture(
+          DeleteObjectsResponse.builder().errors(errors).build());
+    });
+  }
+
+  @Test
+  void testDeleteFiles_splitsIntoBatches() {
+    List<String> urls = IntStream.range(0, 5).mapToObj(i -> URL_PREFIX + "key" + i).toList();
+
+    List<String> failed = imageDeletionService.deleteFiles(urls).join();
+
+    assertTrue(failed.isEmpty());
+    assertEquals(3, requests.size());
+    assertTrue(requests.stream().allMatch(keys -> keys.size() <= 2));
+    assertEquals(5, meterRegistry.counter("s3.objects.deleted").count());
+  }
+
+  @Test
+  void testDeleteFiles_retriesKeysReportedAsFailed() {
+    failuresLeft.put("b", new AtomicInteger(1));
+
+    List<String> failed =
+        imageDeletionService.deleteFiles(List.of(URL_PREFIX + "a", URL_PREFIX + "b")).join();
+
+    assertTrue(failed.isEmpty());
+    assertEquals(List.of(List.of("a", "b"), List.of("b")), List.copyOf(requests));
+    assertEquals(2, meterRegistry.counter("s3.objects.deleted").count());
+  }
+
+  @Test
+  void testDeleteFiles_retriesFailedRequests() {
+    failuresLeft.put("*", new AtomicInteger(1));
+
+    List<String> failed = imageDeletionService.deleteFiles(List.of(URL_PREFIX + "a")).join();
+
+    assertTrue(failed.isEmpty());
+    assertEquals(2, requests.size());
+  }
+
+  @Test
+  void testDeleteImages_publishesPermanentFailuresToRetryTopic() {
+    failuresLeft.put("b", new AtomicInteger(Integer.MAX_VALUE));
+    when(kafkaTemplate.send(anyString(), anyString()))
+        .thenReturn(CompletableFuture.completedFuture(null));
+
+    imageDeletionService.deleteImages(List.of(URL_PREFIX + "a", URL_PREFIX + "b"));
+
+    verify(kafkaTemplate).send(ImageDeletionService.RETRY_TOPIC, "[\"" + URL_PREFIX + "b\"]");
+    assertEquals(1, meterRegistry.counter("s3.objects.delete.failed").count());
+  }
+
+  @Test
+  void testDeleteImages_doesNotPublishWhenAllDeleted() {
+    imageDeletionService.deleteImages(List.of(URL_PREFIX + "a"));
+
+    verify(kafkaTemplate, never()).send(anyString(), anyString());
+  }
+
+  @Test
+  void testDeleteImages_keepsFilesInUseAgain() {
+    when(propertyImageRepository.lockUnusedFiles(any(String[].class), any()))
+        .thenReturn(List.of(URL_PREFIX + "a"));
+
+    imageDeletionService.deleteImages(List.of(URL_PREFIX + "a", URL_PREFIX + "b"));
+
+    assertEquals(List.of(List.of("a")), List.copyOf(requests));
+  }
+
+  @Test
+  void testRetryDeletion_failsWhileImagesRemain() {
+    failuresLeft.put("a", new AtomicInteger(Integer.MAX_VALUE));
+
+    assertThrows(FileDeletionException.class,
+        () -> imageDeletionService.retryDeletion("[\"" + URL_PREFIX + "a\"]"));
+  }
+}
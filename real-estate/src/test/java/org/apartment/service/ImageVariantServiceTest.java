@@ -0,0 +1,263 @@
+package org.apartment.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import javax.imageio.ImageIO;
+import org.apartment.config.CacheConfig;
+import org.apartment.entity.PropertyImage;
+import org.apartment.repository.PropertyImageRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import software.amazon.awssdk.core.ResponseBytes;
+import software.amazon.awssdk.core.async.AsyncRequestBody;
+import software.amazon.awssdk.core.async.AsyncResponseTransformer;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
+import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+import software.amazon.awssdk.services.s3.model.GetObjectResponse;
+import software.amazon.awssdk.services.s3.model.NoSuchKeyException;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import software.amazon.awssdk.services.s3.model.PutObjectResponse;
+import software.amazon.awssdk.services.s3.model.S3Exception;
+
+class ImageVariantServiceTest {
+  private static final String URL_PREFIX = "http://localhost:9000/test-bucket/";
+  private static final String IMAGE_URL = URL_PREFIX + "abc123";
+
+  @Mock
+  private S3AsyncClient s3AsyncClient;
+
+  @Mock
+  private PropertyImageRepository propertyImageRepository;
+
+  private final CacheManager cacheManager =
+      new ConcurrentMapCacheManager(CacheConfig.PROPERTIES_CACHE);
+  private ImageVariantService imageVariantService;
+  private final Map<String, byte[]> stored = new ConcurrentHashMap<>();
+  private final Set<String> fetched = ConcurrentHashMap.newKeySet();
+
+  @BeforeEach
+  void setUp() {
+    MockitoAnnotations.openMocks(this);
+    imageVariantService = new ImageVariantService(s3AsyncClient, "http://localhost:9000",
+        "test-bucket", propertyImageRepository,
+        new TransactionTemplate(mock(PlatformTransactionManager.class)), cacheManager,
+        List.of(1024, 320), 0.8f, 1, 2);
+
+    when(s3AsyncClient.putObject(any(Consumer.class), any(AsyncRequestBody.class)))
+        .thenAnswer(invocation -> {
+          PutObjectRequest.Builder request = PutObjectRequest.builder();
+          invocation.<Consumer<PutObjectRequest.Builder>>getArgument(0).accept(request);
+          ByteArrayOutputStream output = new ByteArrayOutputStream();
+          return invocation.<AsyncRequestBody>getArgument(1).subscribe(buffer -> {
+            byte[] bytes = new byte[buffer.remaining()];
+            buffer.get(bytes);
+            output.writeBytes(bytes);
+          }).thenApply(done -> {
+            stored.put(request.build().key(), output.toByteArray());
+            return PutObjectResponse.builder().build();
+          });
+        });
+  }
+
+  @AfterEach
+  void tearDown() {
+    imageVariantService.close();
+  }
+
+  @Test
+  void testGenerate_resizesAndRecordsVariants() throws IOException {
+    stubOriginal(2000, 1500);
+    PropertyImage image = PropertyImage.builder().imageUrl(IMAGE_URL).build();
+    when(propertyImageRepository.findByImageUrl(IMAGE_URL)).thenReturn(List.of(image));
+    cacheManager.getCache(CacheConfig.PROPERTIES_CACHE).put("property", "stale");
+
+    imageVariantService.generate(IMAGE_URL);
+
+    assertEquals(Map.of(320, IMAGE_URL + "-w320", 1024, IMAGE_URL + "-w1024"),
+        image.getVariants());
+    assertEquals(Set.of("abc123"), fetched);
+    assertDimensions(stored.get("abc123-w320"), 320, 240);
+    assertDimensions(stored.get("abc123-w1024"), 1024, 768);
+    assertNull(cacheManager.getCache(CacheConfig.PROPERTIES_CACHE).get("property"));
+  }
+
+  @Test
+  void testGenerate_keepsOriginalForVariantsWiderThanIt() throws IOException {
+    stubOriginal(800, 600);
+    PropertyImage image = PropertyImage.builder().imageUrl(IMAGE_URL).build();
+    when(propertyImageRepository.findByImageUrl(IMAGE_URL)).thenReturn(List.of(image));
+
+    imageVariantService.generate(IMAGE_URL);
+
+    assertEquals(Map.of(320, IMAGE_URL + "-w320", 1024, IMAGE_URL), image.getVariants());
+    assertEquals(1, stored.size());
+  }
+
+  @Test
+  void testGenerate_reusesVariantsOfIdenticalImage() throws IOException {
+    Map<Integer, String> variants = Map.of(320, IMAGE_URL + "-w320", 1024, IMAGE_URL + "-w1024");
+    PropertyImage processed =
+        PropertyImage.builder().imageUrl(IMAGE_URL).variants(variants).build();
+    PropertyImage image = PropertyImage.builder().imageUrl(IMAGE_URL).build();
+    when(propertyImageRepository.findByImageUrl(IMAGE_URL)).thenReturn(List.of(processed, image));
+
+    imageVariantService.generate(IMAGE_URL);
+
+    assertEquals(variants, image.getVariants());
+    verify(s3AsyncClient, never()).getObject(any(Consumer.class),
+        any(AsyncResponseTransformer.class));
+  }
+
+  @Test
+  void testSweepMissingVariants_pagesThroughImagesWithoutVariants() throws IOException {
+    stubOriginal(800, 600);
+    List<PropertyImage> images = List.of("abc123", "def456", "ghi789").stream()
+        .map(key -> PropertyImage.builder().imageUrl(URL_PREFIX + key).build()).toList();
+    images.forEach(image -> when(propertyImageRepository.findByImageUrl(image.getImageUrl()))
+        .thenReturn(List.of(image)));
+    when(propertyImageRepository.findImageUrlsWithoutVariants(URL_PREFIX, URL_PREFIX, 2))
+        .thenReturn(List.of(URL_PREFIX + "abc123", URL_PREFIX + "def456"));
+    when(propertyImageRepository.findImageUrlsWithoutVariants(URL_PREFIX, URL_PREFIX + "def456",
+        2)).thenReturn(List.of(URL_PREFIX + "ghi789"));
+
+    assertEquals(3, imageVariantService.sweepMissingVariants());
+
+    assertEquals(Set.of("abc123", "def456", "ghi789"), fetched);
+    images.forEach(image -> assertEquals(
+        Map.of(320, image.getImageUrl() + "-w320", 1024, image.getImageUrl()),
+        image.getVariants()));
+  }
+
+  @Test
+  void testGenerate_appliesExifOrientation() throws IOException {
+    // Stored sideways with the top of the picture on the left, orientation 6 turns it clockwise
+    BufferedImage sideways = new BufferedImage(2000, 1500, BufferedImage.TYPE_INT_RGB);
+    Graphics2D graphics = sideways.createGraphics();
+    graphics.setColor(Color.RED);
+    graphics.fillRect(0, 0, 500, 1500);
+    graphics.dispose();
+    stubOriginal(withOrientation(jpeg(sideways), 6));
+    PropertyImage image = PropertyImage.builder().imageUrl(IMAGE_URL).build();
+    when(propertyImageRepository.findByImageUrl(IMAGE_URL)).thenReturn(List.of(image));
+
+    imageVariantService.generate(IMAGE_URL);
+
+    assertDimensions(stored.get("abc123-w1024"), 1024, 1365);
+    BufferedImage variant = ImageIO.read(new ByteArrayInputStream(stored.get("abc123-w320")));
+    assertEquals(320, variant.getWidth());
+    assertEquals(427, variant.getHeight());
+    assertTrue(new Color(variant.getRGB(160, 10)).getRed() > 200);
+    assertTrue(new Color(variant.getRGB(160, 417)).getRed() < 50);
+  }
+
+  @Test
+  void testGenerate_marksUndecodableImageFailed() {
+    stubOriginal(new byte[] {1, 2, 3});
+    PropertyImage image = PropertyImage.builder().imageUrl(IMAGE_URL).build();
+    when(propertyImageRepository.findByImageUrl(IMAGE_URL)).thenReturn(List.of(image));
+
+    assertThrows(IOException.class, () -> imageVariantService.generate(IMAGE_URL));
+
+    assertTrue(image.isVariantsFailed());
+    assertNull(image.getVariants());
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  void testGenerate_marksMissingImageFailed() {
+    when(s3AsyncClient.getObject(any(Consumer.class), any(AsyncResponseTransformer.class)))
+        .thenReturn(CompletableFuture.failedFuture(NoSuchKeyException.builder().build()));
+    PropertyImage image = PropertyImage.builder().imageUrl(IMAGE_URL).build();
+    when(propertyImageRepository.findByImageUrl(IMAGE_URL)).thenReturn(List.of(image));
+
+    assertThrows(NoSuchKeyException.class, () -> imageVariantService.generate(IMAGE_URL));
+
+    assertTrue(image.isVariantsFailed());
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  void testGenerate_leavesImageForSweepAfterStorageError() {
+    when(s3AsyncClient.getObject(any(Consumer.class), any(AsyncResponseTransformer.class)))
+        .thenReturn(CompletableFuture.failedFuture(
+            S3Exception.builder().statusCode(503).message("Slow Down").build()));
+    PropertyImage image = PropertyImage.builder().imageUrl(IMAGE_URL).build();
+    when(propertyImageRepository.findByImageUrl(IMAGE_URL)).thenReturn(List.of(image));
+
+    assertThrows(CompletionException.class, () -> imageVariantService.generate(IMAGE_URL));
+
+    assertFalse(image.isVariantsFailed());
+  }
+
+  private void stubOriginal(int width, int height) throws IOException {
+    stubOriginal(jpeg(new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB)));
+  }
+
+  @SuppressWarnings("unchecked")
+  private void stubOriginal(byte[] bytes) {
+    ResponseBytes<GetObjectResponse> original =
+        ResponseBytes.fromByteArray(GetObjectResponse.builder().build(), bytes);
+    when(s3AsyncClient.getObject(any(Consumer.class), any(AsyncResponseTransformer.class)))
+        .thenAnswer(invocation -> {
+          GetObjectRequest.Builder request = GetObjectRequest.builder();
+          invocation.<Consumer<GetObjectRequest.Builder>>getArgument(0).accept(request);
+          fetched.add(request.build().key());
+          return CompletableFuture.completedFuture(original);
+        });
+  }
+
+  private static byte[] jpeg(BufferedImage image) throws IOException {
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+    ImageIO.write(image, "jpeg", output);
+    return output.toByteArray();
+  }
+
+  // Inserts a big-endian Exif APP1 segment holding only the orientation after the JFIF segment
+  private static byte[] withOrientation(byte[] jpeg, int orientation) {
+    byte[] exif = {(byte) 0xFF, (byte) 0xE1, 0, 34, 'E', 'x', 'i', 'f', 0, 0,
+        'M', 'M', 0, 42, 0, 0, 0, 8,
+        0, 1, 0x01, 0x12, 0, 3, 0, 0, 0, 1, 0, (byte) orientation, 0, 0,
+        0, 0, 0, 0};
+    int jfifEnd = 4 + ((jpeg[4] & 0xFF) << 8 | jpeg[5] & 0xFF);
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+    output.write(jpeg, 0, jfifEnd);
+    output.writeBytes(exif);
+    output.write(jpeg, jfifEnd, jpeg.length - jfifEnd);
+    return output.toByteArray();
+  }
+
+  private static void assertDimensions(byte[] jpeg, int width, int height) throws IOException {
+    BufferedImage image = ImageIO.read(new ByteArrayInputStream(jpeg));
+    assertEquals(width, image.getWidth());
+    assertEquals(height, image.getHeight());
+  }
+}
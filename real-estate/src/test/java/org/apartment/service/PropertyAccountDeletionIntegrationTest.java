@@ -0,0 +1,219 @@
+package org.apartment.service;
+
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import jakarta.persistence.EntityManager;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.apartment.entity.Property;
+import org.apartment.entity.PropertyDealType;
+import org.apartment.entity.PropertyImage;
+import org.apartment.entity.PropertyStatus;
+import org.apartment.entity.PropertyType;
+import org.apartment.repository.PropertyImageRepository;
+import org.apartment.repository.PropertyRepository;
+import org.hibernate.search.mapper.orm.Search;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+@SpringBootTest(properties = {
+    "spring.jpa.properties.hibernate.search.coordination.strategy=outbox-polling",
+    "spring.jpa.properties.hibernate.search.coordination.event_processor.polling_interval=50"})
+@Testcontainers
+public class PropertyAccountDeletionIntegrationTest {
+
+  @Autowired
+  private PropertyService propertyService;
+
+  @Autowired
+  private PropertyRepository propertyRepository;
+
+  @Autowired
+  private PropertyImageRepository propertyImageRepository;
+
+  @Autowired
+  private EntityManager entityManager;
+
+  @Autowired
+  private TransactionTemplate transactionTemplate;
+
+  @MockitoBean
+  private ImageDeletionService imageDeletionService;
+
+  @Container
+  public static PostgreSQLContainer<?> postgresContainer =
+      new PostgreSQLContainer<>("postgres:latest").withDatabaseName("test_real_estate_db")
+          .withUsername("test_admin").withPassword("test_admin");
+
+  @DynamicPropertySource
+  static void dynamicProperties(DynamicPropertyRegistry registry) {
+    registry.add("spring.datasource.url", postgresContainer::getJdbcUrl);
+    registry.add("spring.datasource.username", postgresContainer::getUsername);
+    registry.add("spring.datasource.password", postgresContainer::getPassword);
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  public void testDeletePropertiesOfUserBatch() {
+    String first = UUID.randomUUID().toString();
+    String second = UUID.randomUUID().toString();
+    String remaining = UUID.randomUUID().toString();
+    save(first, "http://s3/bucket/first", "http://s3/bucket/shared");
+    save(second, "http://s3/bucket/second");
+    save(remaining, "http://s3/bucket/shared");
+    Acknowledgment acknowledgment = mock(Acknowledgment.class);
+
+    propertyService.deleteProperties(List.of(first, second, first), acknowledgment);
+
+    ArgumentCaptor<Collection<String>> deleted = ArgumentCaptor.forClass(Collection.class);
+    verify(imageDeletionService).deleteImages(deleted.capture());
+    Assertions.assertEquals(Set.of("http://s3/bucket/first", "http://s3/bucket/first-w320",
+            "http://s3/bucket/second", "http://s3/bucket/second-w320"),
+        Set.copyOf(deleted.getValue()));
+    verify(acknowledgment).acknowledge();
+
+    List<String> userIds = List.of(first, second, remaining);
+    Assertions.assertEquals(List.of(remaining), propertyRepository.findAll().stream()
+        .map(Property::getPostedBy).filter(userIds::contains).toList());
+    Assertions.assertEquals(List.of("http://s3/bucket/shared"), propertyImageRepository.findAll()
+        .stream().map(PropertyImage::getImageUrl).filter(url -> url.startsWith("http://s3/"))
+        .toList());
+  }
+
+  @Test
+  public void testDeletePropertiesPurgesSearchIndex() throws InterruptedException {
+    String userId = UUID.randomUUID().toString();
+    save(userId);
+    awaitIndexedProperties(userId, 1);
+
+    propertyService.deleteProperties(List.of(userId), mock(Acknowledgment.class));
+
+    awaitIndexedProperties(userId, 0);
+  }
+
+  @Test
+  public void testDeletePropertiesDoesNotAcknowledgeFailedBatch() {
+    Acknowledgment acknowledgment = mock(Acknowledgment.class);
+    doThrow(new IllegalStateException("S3 unavailable"))
+        .when(imageDeletionService).deleteImages(anyCollection());
+
+    BatchListenerFailedException exception = Assertions.assertThrows(
+        BatchListenerFailedException.class, () -> propertyService.deleteProperties(
+            List.of(UUID.randomUUID().toString()), acknowledgment));
+
+    Assertions.assertEquals(0, exception.getIndex());
+    Assertions.assertInstanceOf(IllegalStateException.class, exception.getCause());
+    verify(acknowledgment, never()).acknowledge();
+  }
+
+  @Test
+  public void testDeletePropertiesReportsFirstFailedUser() {
+    String deleted = UUID.randomUUID().toString();
+    String failing = UUID.randomUUID().toString();
+    save(deleted);
+    save(failing);
+    Acknowledgment acknowledgment = mock(Acknowledgment.class);
+    IllegalStateException failure = new IllegalStateException("S3 unavailable");
+    doThrow(failure).doNothing().doThrow(failure)
+        .when(imageDeletionService).deleteImages(anyCollection());
+
+    BatchListenerFailedException exception = Assertions.assertThrows(
+        BatchListenerFailedException.class, () -> propertyService.deleteProperties(
+            List.of(deleted, failing, UUID.randomUUID().toString()), acknowledgment));
+
+    Assertions.assertEquals(1, exception.getIndex());
+    verify(imageDeletionService, times(3)).deleteImages(anyCollection());
+    verify(acknowledgment, never()).acknowledge();
+  }
+
+  @Test
+  public void testLockUnusedFilesKeepsReferencedAndLeasedFiles() {
+    String unused = "http://s3/bucket/" + UUID.randomUUID();
+    String leased = "http://s3/bucket/" + UUID.randomUUID();
+    String referenced = "http://s3/bucket/referenced";
+    save(UUID.randomUUID().toString(), referenced);
+    transactionTemplate.executeWithoutResult(status -> propertyImageRepository.leaseImage(leased));
+
+    List<String> files = transactionTemplate.execute(status -> propertyImageRepository
+        .lockUnusedFiles(new String[] {unused, unused + "-w320", leased, leased + "-w320",
+            referenced, referenced + "-w320"}, Instant.now().minus(Duration.ofMinutes(15))));
+
+    Assertions.assertEquals(Set.of(unused, unused + "-w320"), Set.copyOf(files));
+  }
+
+  @Test
+  public void testLeaseWaitsForDeletionHoldingFile() throws Exception {
+    String url = "http://s3/bucket/" + UUID.randomUUID();
+    CountDownLatch locked = new CountDownLatch(1);
+    CompletableFuture<Void> release = new CompletableFuture<>();
+    CompletableFuture<Void> deletion = CompletableFuture.runAsync(
+        () -> transactionTemplate.executeWithoutResult(status -> {
+          propertyImageRepository.lockUnusedFiles(new String[] {url}, Instant.now());
+          locked.countDown();
+          release.join();
+        }));
+    locked.await(5, TimeUnit.SECONDS);
+
+    CompletableFuture<String> lease = CompletableFuture.supplyAsync(
+        () -> transactionTemplate.execute(status -> propertyImageRepository.leaseImage(url)));
+    Thread.sleep(200);
+    Assertions.assertFalse(lease.isDone());
+
+    release.complete(null);
+    deletion.get(5, TimeUnit.SECONDS);
+    Assertions.assertEquals(url, lease.get(5, TimeUnit.SECONDS));
+  }
+
+  private void awaitIndexedProperties(String userId, long expected) throws InterruptedException {
+    long hits = -1;
+    for (int attempt = 0; attempt < 100 && hits != expected; attempt++) {
+      Thread.sleep(100);
+      hits = transactionTemplate.execute(status -> Search.session(entityManager)
+          .search(Property.class).where(f -> f.match().field("postedBy").matching(userId))
+          .fetchTotalHitCount());
+    }
+    Assertions.assertEquals(expected, hits);
+  }
+
+  private void save(String userId, String... imageUrls) {
+    Property property = Property.builder().title("Loft").propertyDealType(PropertyDealType.RENT)
+        .description("Deleted with the account").type(PropertyType.APARTMENT)
+        .price(BigDecimal.valueOf(250000)).city("Boston").status(PropertyStatus.AVAILABLE)
+        .postedBy(userId).build();
+    List<PropertyImage> images = new ArrayList<>();
+    for (String imageUrl : imageUrls) {
+      images.add(PropertyImage.builder().imageUrl(imageUrl).property(property)
+          .variants(imageUrl.endsWith("shared") ? null : Map.of(320, imageUrl + "-w320"))
+          .build());
+    }
+    property.setImages(images);
+    propertyRepository.save(property);
+  }
+}
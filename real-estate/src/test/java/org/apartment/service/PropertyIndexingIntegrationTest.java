@@ -0,0 +1,189 @@
+package org.apartment.service;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+import org.apartment.config.CacheConfig;
+import org.apartment.dto.PropertySearchDto;
+import org.apartment.dto.ReindexStatus;
+import org.apartment.dto.PropertySearchResultDto;
+import org.apartment.entity.Property;
+import org.apartment.entity.PropertyDealType;
+import org.apartment.entity.PropertyStatus;
+import org.apartment.entity.PropertyType;
+import org.apartment.repository.PropertyRepository;
+import org.hibernate.search.mapper.orm.Search;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+@SpringBootTest(properties = {
+    "spring.jpa.properties.hibernate.search.coordination.strategy=outbox-polling",
+    "spring.jpa.properties.hibernate.search.coordination.event_processor.polling_interval=50"})
+@AutoConfigureMockMvc
+@Testcontainers
+public class PropertyIndexingIntegrationTest {
+
+  @Autowired
+  private PropertyRepository propertyRepository;
+
+  @Autowired
+  private MockMvc mockMvc;
+
+  @Autowired
+  private MeterRegistry meterRegistry;
+
+  @Autowired
+  private CacheManager cacheManager;
+
+  @Autowired
+  private SearchIndexConsistencyService searchIndexConsistencyService;
+
+  @Autowired
+  private SearchReindexService searchReindexService;
+
+  @Autowired
+  private PropertySearchService propertySearchService;
+
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  @Autowired
+  private EntityManager entityManager;
+
+  @Autowired
+  private TransactionTemplate transactionTemplate;
+
+  private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+  @Container
+  public static PostgreSQLContainer<?> postgresContainer =
+      new PostgreSQLContainer<>("postgres:latest").withDatabaseName("test_real_estate_db")
+          .withUsername("test_admin").withPassword("test_admin");
+
+  @DynamicPropertySource
+  static void dynamicProperties(DynamicPropertyRegistry registry) {
+    registry.add("spring.datasource.url", postgresContainer::getJdbcUrl);
+    registry.add("spring.datasource.username", postgresContainer::getUsername);
+    registry.add("spring.datasource.password", postgresContainer::getPassword);
+  }
+
+  @Test
+  public void testSaveIsIndexedThroughOutbox() throws Exception {
+    Property property =
+        Property.builder().title("Outbox Loft").propertyDealType(PropertyDealType.RENT)
+            .description("Indexed asynchronously").type(PropertyType.APARTMENT)
+            .price(BigDecimal.valueOf(250000)).city("Boston").status(PropertyStatus.AVAILABLE)
+            .postedBy(UUID.randomUUID().toString()).build();
+
+    propertyRepository.save(property);
+
+    String json =
+        objectMapper.writeValueAsString(PropertySearchDto.builder().city("Boston").build());
+    long searchHits = 0;
+    for (int attempt = 0; attempt < 100 && searchHits == 0; attempt++) {
+      Thread.sleep(100);
+      cacheManager.getCache(CacheConfig.PROPERTY_SEARCH_CACHE).clear();
+      String response = mockMvc.perform(get("/api/v1/property/search")
+              .contentType(MediaType.APPLICATION_JSON).content(json))
+          .andExpect(status().isOk()).andReturn().getResponse().getContentAsString();
+      searchHits =
+          objectMapper.readValue(response, PropertySearchResultDto.class).getTotalElements();
+    }
+
+    Assertions.assertEquals(1, searchHits);
+    Assertions.assertNotNull(meterRegistry.find("search.indexing.lag").gauge());
+    Assertions.assertEquals(0.0,
+        meterRegistry.find("search.indexing.pending").gauge().value());
+  }
+
+  @Test
+  public void testSearchIsNotCachedWithOutboxCoordination() {
+    PropertySearchDto searchDto = PropertySearchDto.builder().city("Portland").build();
+
+    search(searchDto);
+
+    Assertions.assertNull(cacheManager.getCache(CacheConfig.PROPERTY_SEARCH_CACHE)
+        .get(List.of(searchDto.normalized(), 0, 10)));
+  }
+
+  @Test
+  public void testConsistencyCheckPurgesOrphanedDocuments() throws Exception {
+    String postedBy = UUID.randomUUID().toString();
+    Property property =
+        Property.builder().title("Orphan Loft").propertyDealType(PropertyDealType.RENT)
+            .description("Deleted behind the index").type(PropertyType.APARTMENT)
+            .price(BigDecimal.valueOf(250000)).city("Denver").status(PropertyStatus.AVAILABLE)
+            .postedBy(postedBy).build();
+    propertyRepository.save(property);
+    awaitIndexedProperties(postedBy, 1);
+
+    jdbcTemplate.update("DELETE FROM property WHERE id = ?", property.getId());
+    long purged = 0;
+    for (int attempt = 0; attempt < 100 && purged == 0; attempt++) {
+      Thread.sleep(100);
+      purged = searchIndexConsistencyService.checkConsistency();
+    }
+
+    Assertions.assertEquals(1, purged);
+    awaitIndexedProperties(postedBy, 0);
+    Assertions.assertEquals(1.0,
+        meterRegistry.find("search.index.orphans.purged").counter().count());
+  }
+
+  @Test
+  public void testMassReindexIndexesRowsInsertedBehindTheIndex() throws Exception {
+    String postedBy = UUID.randomUUID().toString();
+    jdbcTemplate.update("INSERT INTO property (id, title, description, type, property_deal_type, "
+            + "price, city, status, posted_by, created_at, updated_at) VALUES (?, 'Raw Loft', "
+            + "'Inserted with SQL', 'APARTMENT', 'RENT', 100000, 'Austin', 'AVAILABLE', ?, "
+            + "CURRENT_DATE, CURRENT_DATE)", UUID.randomUUID(), postedBy);
+
+    Assertions.assertTrue(searchReindexService.start());
+    for (int attempt = 0; attempt < 100
+        && !"completed".equals(searchReindexService.status().state()); attempt++) {
+      Thread.sleep(100);
+    }
+
+    ReindexStatus status = searchReindexService.status();
+    Assertions.assertEquals("completed", status.state());
+    Assertions.assertEquals(propertyRepository.count(), status.indexedDocuments());
+    awaitIndexedProperties(postedBy, 1);
+    Assertions.assertNotNull(meterRegistry.find("search.reindex.throughput").gauge());
+  }
+
+  private void awaitIndexedProperties(String postedBy, long expected) throws InterruptedException {
+    long hits = -1;
+    for (int attempt = 0; attempt < 100 && hits != expected; attempt++) {
+      Thread.sleep(100);
+      hits = transactionTemplate.execute(status -> Search.session(entityManager)
+          .search(Property.class).where(f -> f.match().field("postedBy").matching(postedBy))
+          .fetchTotalHitCount());
+    }
+    Assertions.assertEquals(expected, hits);
+  }
+
+  private void search(PropertySearchDto searchDto) {
+    transactionTemplate.executeWithoutResult(
+        status -> propertySearchService.searchProperties(searchDto, 0, 10));
+  }
+}
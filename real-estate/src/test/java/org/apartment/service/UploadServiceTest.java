@@ -1,46 +1,82 @@
 package org.apartment.service;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
-import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.Mockito.any;
 import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HexFormat;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
 import javax.imageio.ImageIO;
+import org.apartment.config.UploadExecutor;
+import org.apartment.dto.UploadedFile;
 import org.apartment.exception.FileCountExceededException;
 import org.apartment.exception.FileReadException;
 import org.apartment.exception.FileSizeExceededException;
 import org.apartment.exception.InvalidFileExtensionException;
 import org.apartment.exception.InvalidFileNameException;
 import org.apartment.exception.InvalidImageFileException;
+import org.apartment.exception.UploadRejectedException;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
+import org.apartment.repository.PropertyImageRepository;
 import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
 import org.mockito.Mock;
-import org.mockito.MockedStatic;
-import org.mockito.Mockito;
 import org.mockito.MockitoAnnotations;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
-import software.amazon.awssdk.core.sync.RequestBody;
-import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.core.async.AsyncRequestBody;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
+import software.amazon.awssdk.services.s3.model.HeadObjectRequest;
+import software.amazon.awssdk.services.s3.model.HeadObjectResponse;
 import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import software.amazon.awssdk.services.s3.model.PutObjectResponse;
+import software.amazon.awssdk.services.s3.model.S3Exception;
 
 class UploadServiceTest {
   @Mock
-  private S3Client s3Client;
+  private S3AsyncClient s3AsyncClient;
 
   @Mock
   private MultipartFile file;
 
+  @Mock
+  private PropertyImageRepository propertyImageRepository;
+
   private UploadService uploadService;
   private FileValidationService fileValidationService;
+  private UploadExecutor uploadExecutor;
+  private MeterRegistry meterRegistry;
 
   private final String s3StorageEndpoint = "http://localhost:9000";
   private final String bucketName = "test-bucket";
@@ -49,27 +85,142 @@ class UploadServiceTest {
   void setUp() {
     MockitoAnnotations.openMocks(this);
     fileValidationService = spy(new FileValidationService());
-    uploadService = spy(new UploadService(s3Client, s3StorageEndpoint, bucketName, fileValidationService));
+    meterRegistry = new SimpleMeterRegistry();
+    uploadExecutor = new UploadExecutor(2, 2, false, meterRegistry);
+    uploadService = spy(new UploadService(s3AsyncClient, s3StorageEndpoint, bucketName,
+        fileValidationService, uploadExecutor, propertyImageRepository,
+        new TransactionTemplate(mock(PlatformTransactionManager.class)), Duration.ofSeconds(10)));
+    when(s3AsyncClient.headObject(any(HeadObjectRequest.class))).thenReturn(
+        CompletableFuture.failedFuture(S3Exception.builder().statusCode(404).build()));
+  }
+
+  @AfterEach
+  void tearDown() throws InterruptedException {
+    uploadExecutor.close();
   }
 
   @Test
   void testUploadFiles_success() throws Exception {
-    String fileName = "image.jpg";
-    byte[] content = "test content".getBytes();
-
-    when(file.getOriginalFilename()).thenReturn(fileName);
-    when(file.getInputStream()).thenReturn(new java.io.ByteArrayInputStream(content));
-    when(file.getSize()).thenReturn((long) content.length);
+    byte[] content = stubJpeg(file, 64);
 
     doNothing().when(fileValidationService).validateFiles(any(MultipartFile[].class));
 
-    when(s3Client.putObject(any(PutObjectRequest.class), any(RequestBody.class))).thenReturn(null);
+    ByteArrayOutputStream uploaded = new ByteArrayOutputStream();
+    when(s3AsyncClient.putObject(any(PutObjectRequest.class), any(AsyncRequestBody.class)))
+        .thenAnswer(invocation -> consume(invocation.getArgument(1), uploaded)
+            .thenApply(done -> PutObjectResponse.builder().build()));
 
-    List<String> result = uploadService.uploadFiles(new MultipartFile[] {file});
+    List<UploadedFile> result = uploadService.uploadFiles(new MultipartFile[] {file}).join();
 
     assertNotNull(result);
     assertEquals(1, result.size());
-    assertTrue(result.getFirst().contains(bucketName));
+    String sha256 = HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+    assertEquals(sha256, result.getFirst().sha256());
+    assertEquals(s3StorageEndpoint + "/" + bucketName + "/" + sha256, result.getFirst().url());
+    assertArrayEquals(content, uploaded.toByteArray());
+    verify(file, times(2)).getInputStream();
+    assertEquals(1, meterRegistry.get("upload.duration").tag("outcome", "success").timer().count());
+  }
+
+  @Test
+  void testUploadFiles_rejectedWhenQueueIsFull() throws Exception {
+    UploadExecutor singleSlotExecutor = new UploadExecutor(1, 0, false, meterRegistry);
+    uploadService = new UploadService(s3AsyncClient, s3StorageEndpoint, bucketName,
+        fileValidationService, singleSlotExecutor, propertyImageRepository,
+        new TransactionTemplate(mock(PlatformTransactionManager.class)), Duration.ofSeconds(10));
+    MultipartFile secondFile = mock(MultipartFile.class);
+    stubJpeg(file, 64);
+    stubJpeg(secondFile, 65);
+    when(s3AsyncClient.putObject(any(PutObjectRequest.class), any(AsyncRequestBody.class)))
+        .thenAnswer(invocation -> consume(invocation.getArgument(1), new ByteArrayOutputStream())
+            .thenCompose(done -> new CompletableFuture<PutObjectResponse>()));
+
+    try {
+      assertThrows(UploadRejectedException.class,
+          () -> uploadService.uploadFiles(new MultipartFile[] {file, secondFile}));
+      assertEquals(1, meterRegistry.get("upload.executor.rejected").counter().count());
+    } finally {
+      singleSlotExecutor.close();
+    }
+  }
+
+  @Test
+  void testUploadFiles_failureCancelsRemainingUploads() throws Exception {
+    MultipartFile secondFile = mock(MultipartFile.class);
+    stubJpeg(file, 64);
+    stubJpeg(secondFile, 65);
+    // The first put stays pending once its body is consumed, and the second fails only after
+    // that, so the cancellation reaches a put that is waiting for its response
+    CompletableFuture<PutObjectResponse> pending = new CompletableFuture<>();
+    CompletableFuture<Void> firstBodyConsumed = new CompletableFuture<>();
+    when(s3AsyncClient.putObject(any(PutObjectRequest.class), any(AsyncRequestBody.class)))
+        .thenAnswer(invocation -> {
+          consume(invocation.getArgument(1), new ByteArrayOutputStream())
+              .thenRun(() -> firstBodyConsumed.complete(null));
+          return pending;
+        })
+        .thenAnswer(invocation -> consume(invocation.getArgument(1), new ByteArrayOutputStream())
+            .thenCompose(done -> firstBodyConsumed)
+            .thenCompose(done -> CompletableFuture.<PutObjectResponse>failedFuture(
+                S3Exception.builder().message("Internal error").build())));
+
+    CompletableFuture<List<UploadedFile>> result =
+        uploadService.uploadFiles(new MultipartFile[] {file, secondFile});
+
+    assertThrows(CompletionException.class, result::join);
+    assertThrows(CancellationException.class, () -> pending.get(5, TimeUnit.SECONDS));
+  }
+
+  @Test
+  void testUploadFiles_concurrentIdenticalUploadsStoreOnce() throws Exception {
+    Set<String> stored = ConcurrentHashMap.newKeySet();
+    AtomicInteger inFlight = new AtomicInteger();
+    AtomicInteger maxInFlight = new AtomicInteger();
+    when(s3AsyncClient.putObject(any(PutObjectRequest.class), any(AsyncRequestBody.class)))
+        .thenAnswer(invocation -> {
+          PutObjectRequest request = invocation.getArgument(0);
+          maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+          return consume(invocation.getArgument(1), new ByteArrayOutputStream())
+              .thenCompose(done -> CompletableFuture.supplyAsync(() -> {
+                stored.add(request.key());
+                inFlight.decrementAndGet();
+                return PutObjectResponse.builder().build();
+              }, CompletableFuture.delayedExecutor(50, TimeUnit.MILLISECONDS)));
+        });
+
+    List<CompletableFuture<List<UploadedFile>>> requests = new ArrayList<>();
+    for (int i = 0; i < 2; i++) {
+      MultipartFile[] files = new MultipartFile[] {mock(MultipartFile.class),
+          mock(MultipartFile.class)};
+      for (MultipartFile multipartFile : files) {
+        stubJpeg(multipartFile, 64);
+      }
+      requests.add(uploadService.uploadFiles(files));
+    }
+
+    Set<String> urls = requests.stream().map(CompletableFuture::join).flatMap(List::stream)
+        .map(UploadedFile::url).collect(Collectors.toSet());
+    assertEquals(1, urls.size());
+    assertEquals(1, stored.size());
+    assertEquals(1, maxInFlight.get());
+  }
+
+  @Test
+  void testUploadFiles_skipsStoredContentAfterTakingLease() throws Exception {
+    byte[] content = stubJpeg(file, 64);
+    String sha256 = HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+    String url = s3StorageEndpoint + "/" + bucketName + "/" + sha256;
+    when(s3AsyncClient.headObject(any(HeadObjectRequest.class)))
+        .thenReturn(CompletableFuture.completedFuture(HeadObjectResponse.builder().build()));
+
+    List<UploadedFile> result = uploadService.uploadFiles(new MultipartFile[] {file}).join();
+
+    assertEquals(url, result.getFirst().url());
+    InOrder inOrder = inOrder(propertyImageRepository, s3AsyncClient);
+    inOrder.verify(propertyImageRepository).leaseImage(url);
+    inOrder.verify(s3AsyncClient).headObject(any(HeadObjectRequest.class));
+    verify(s3AsyncClient, never()).putObject(any(PutObjectRequest.class),
+        any(AsyncRequestBody.class));
   }
 
   @Test
@@ -88,16 +239,12 @@ class UploadServiceTest {
     when(invalidFile.getOriginalFilename()).thenReturn("image.jpg");
     when(invalidFile.getSize()).thenReturn(1024L);
 
-    InputStream mockInputStream = mock(InputStream.class);
-    when(invalidFile.getInputStream()).thenReturn(mockInputStream);
-
-    try (MockedStatic<ImageIO> mockedImageIO = Mockito.mockStatic(ImageIO.class)) {
-      mockedImageIO.when(() -> ImageIO.read(mockInputStream)).thenReturn(null);
+    when(invalidFile.getInputStream())
+        .thenReturn(new ByteArrayInputStream("not an image".getBytes()));
 
-      assertThrows(InvalidImageFileException.class, () -> {
-        uploadService.uploadFiles(new MultipartFile[] {invalidFile});
-      });
-    }
+    assertThrows(InvalidImageFileException.class, () -> {
+      uploadService.uploadFiles(new MultipartFile[] {invalidFile});
+    });
   }
 
   @Test
@@ -107,15 +254,13 @@ class UploadServiceTest {
     when(invalidFile.getSize()).thenReturn(1024L);
 
     InputStream mockInputStream = mock(InputStream.class);
+    when(mockInputStream.read(any(byte[].class), anyInt(), anyInt()))
+        .thenThrow(IOException.class);
     when(invalidFile.getInputStream()).thenReturn(mockInputStream);
 
-    try (MockedStatic<ImageIO> mockedImageIO = Mockito.mockStatic(ImageIO.class)) {
-      mockedImageIO.when(() -> ImageIO.read(mockInputStream)).thenThrow(IOException.class);
-
-      assertThrows(FileReadException.class, () -> {
-        uploadService.uploadFiles(new MultipartFile[] {invalidFile});
-      });
-    }
+    assertThrows(FileReadException.class, () -> {
+      uploadService.uploadFiles(new MultipartFile[] {invalidFile});
+    });
   }
 
   @Test
@@ -124,17 +269,9 @@ class UploadServiceTest {
     when(invalidFile.getOriginalFilename()).thenReturn("");
     when(invalidFile.getSize()).thenReturn(1024L);
 
-    InputStream mockInputStream = mock(InputStream.class);
-    when(invalidFile.getInputStream()).thenReturn(mockInputStream);
-
-    try (MockedStatic<ImageIO> mockedImageIO = Mockito.mockStatic(ImageIO.class)) {
-      mockedImageIO.when(() -> ImageIO.read(mockInputStream))
-          .thenReturn(new BufferedImage(100, 100, BufferedImage.TYPE_INT_ARGB));
-
-      assertThrows(InvalidFileNameException.class, () -> {
-        uploadService.uploadFiles(new MultipartFile[] {invalidFile});
-      });
-    }
+    assertThrows(InvalidFileNameException.class, () -> {
+      uploadService.uploadFiles(new MultipartFile[] {invalidFile});
+    });
   }
 
   @Test
@@ -143,17 +280,9 @@ class UploadServiceTest {
     when(invalidFile.getOriginalFilename()).thenReturn("file.txt");
     when(invalidFile.getSize()).thenReturn(1024L);
 
-    InputStream mockInputStream = mock(InputStream.class);
-    when(invalidFile.getInputStream()).thenReturn(mockInputStream);
-
-    try (MockedStatic<ImageIO> mockedImageIO = Mockito.mockStatic(ImageIO.class)) {
-      mockedImageIO.when(() -> ImageIO.read(mockInputStream))
-          .thenReturn(new BufferedImage(100, 100, BufferedImage.TYPE_INT_ARGB));
-
-      assertThrows(InvalidFileExtensionException.class, () -> {
-        uploadService.uploadFiles(new MultipartFile[] {invalidFile});
-      });
-    }
+    assertThrows(InvalidFileExtensionException.class, () -> {
+      uploadService.uploadFiles(new MultipartFile[] {invalidFile});
+    });
   }
 
   @Test
@@ -162,16 +291,32 @@ class UploadServiceTest {
     when(largeFile.getOriginalFilename()).thenReturn("image.jpg");
     when(largeFile.getSize()).thenReturn(6L * 1024 * 1024);
 
-    InputStream mockInputStream = mock(InputStream.class);
-    when(largeFile.getInputStream()).thenReturn(mockInputStream);
+    assertThrows(FileSizeExceededException.class, () -> {
+      uploadService.uploadFiles(new MultipartFile[] {largeFile});
+    });
+  }
 
-    try (MockedStatic<ImageIO> mockedImageIO = Mockito.mockStatic(ImageIO.class)) {
-      mockedImageIO.when(() -> ImageIO.read(mockInputStream))
-          .thenReturn(new BufferedImage(100, 100, BufferedImage.TYPE_INT_ARGB));
+  private static byte[] stubJpeg(MultipartFile multipartFile, int width) throws IOException {
+    byte[] content = jpeg(width);
+    when(multipartFile.getOriginalFilename()).thenReturn("image.jpg");
+    when(multipartFile.getInputStream())
+        .thenAnswer(invocation -> new ByteArrayInputStream(content));
+    when(multipartFile.getSize()).thenReturn((long) content.length);
+    return content;
+  }
 
-      assertThrows(FileSizeExceededException.class, () -> {
-        uploadService.uploadFiles(new MultipartFile[] {largeFile});
-      });
-    }
+  private static CompletableFuture<Void> consume(AsyncRequestBody body,
+                                                 ByteArrayOutputStream output) {
+    return body.subscribe(buffer -> {
+      byte[] bytes = new byte[buffer.remaining()];
+      buffer.get(bytes);
+      output.writeBytes(bytes);
+    });
+  }
+
+  private static byte[] jpeg(int width) throws IOException {
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+    ImageIO.write(new BufferedImage(width, 48, BufferedImage.TYPE_INT_RGB), "jpeg", output);
+    return output.toByteArray();
   }
-}
\ No newline at end of file
+}